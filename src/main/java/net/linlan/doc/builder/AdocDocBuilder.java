@@ -21,6 +21,7 @@ import net.linlan.doc.model.ApiDoc;
 import net.linlan.doc.template.IDocBuildTemplate;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.constants.DocGlobalConstants;
+import net.linlan.doc.utils.OutputSink;
 
 import java.util.List;
 
@@ -59,14 +60,29 @@ public class AdocDocBuilder {
         ProjectDocConfigBuilder configBuilder = new ProjectDocConfigBuilder(config, javaProjectBuilder);
         IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
         List<ApiDoc> apiDocList = docBuildTemplate.getApiData(configBuilder);
-        if (config.isAllInOne()) {
-            String docName = builderTemplate.allInOneDocName(config,INDEX_DOC,".adoc");
-            apiDocList = docBuildTemplate.handleApiGroup(apiDocList, config);
-            builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.ALL_IN_ONE_ADOC_TPL, docName);
-        } else {
-            builderTemplate.buildApiDoc(apiDocList, config, DocGlobalConstants.API_DOC_ADOC_TPL, API_EXTENSION);
-            builderTemplate.buildErrorCodeDoc(config, DocGlobalConstants.ERROR_CODE_LIST_ADOC_TPL, DocGlobalConstants.ERROR_CODE_LIST_ADOC);
-            builderTemplate.buildDirectoryDataDoc(config, javaProjectBuilder, DocGlobalConstants.DICT_LIST_ADOC_TPL, DocGlobalConstants.DICT_LIST_ADOC);
+        buildApiDoc(apiDocList, config, javaProjectBuilder);
+    }
+
+    /**
+     * Render asciidoc from an api data list that was already built.
+     *
+     * @param apiDocList         list of api doc
+     * @param config             ApiConfig
+     * @param javaProjectBuilder JavaProjectBuilder
+     */
+    public static void buildApiDoc(List<ApiDoc> apiDocList, ApiConfig config, JavaProjectBuilder javaProjectBuilder) {
+        DocBuilderTemplate builderTemplate = new DocBuilderTemplate();
+        IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
+        try (OutputSink output = DocBuilderTemplate.openOutput(config, "adoc", true)) {
+            if (config.isAllInOne()) {
+                String docName = builderTemplate.allInOneDocName(config,INDEX_DOC,".adoc");
+                apiDocList = docBuildTemplate.handleApiGroup(apiDocList, config);
+                builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.ALL_IN_ONE_ADOC_TPL, docName);
+            } else {
+                builderTemplate.buildApiDoc(apiDocList, config, DocGlobalConstants.API_DOC_ADOC_TPL, API_EXTENSION);
+                builderTemplate.buildErrorCodeDoc(config, DocGlobalConstants.ERROR_CODE_LIST_ADOC_TPL, DocGlobalConstants.ERROR_CODE_LIST_ADOC);
+                builderTemplate.buildDirectoryDataDoc(config, javaProjectBuilder, DocGlobalConstants.DICT_LIST_ADOC_TPL, DocGlobalConstants.DICT_LIST_ADOC);
+            }
         }
     }
 
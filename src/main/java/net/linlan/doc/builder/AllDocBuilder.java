@@ -0,0 +1,138 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.builder;
+
+import net.linlan.doc.factory.BuildTemplateFactory;
+import net.linlan.doc.model.ApiConfig;
+import net.linlan.doc.model.ApiDoc;
+import net.linlan.doc.template.IDocBuildTemplate;
+import com.thoughtworks.qdox.JavaProjectBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Build several doc formats in one pass. The source is parsed once and the api data
+ * is built once for every distinct model variant the requested formats need
+ * (flat or tree params, asciidoc headers); each format then renders from its own
+ * copy of a shared read-only snapshot.
+ *
+ * @author yu 2026/10/17.
+ */
+public class AllDocBuilder {
+
+    private static Logger log = Logger.getLogger(AllDocBuilder.class.getName());
+
+    public static final String HTML = "html";
+
+    public static final String MARKDOWN = "markdown";
+
+    public static final String ADOC = "adoc";
+
+    public static final String OPENAPI = "openapi";
+
+    public static final String POSTMAN = "postman";
+
+    public static final String TORNA = "torna-rest";
+
+    /**
+     * Only for doc-generate maven plugin and gradle plugin.
+     *
+     * @param config             ApiConfig
+     * @param javaProjectBuilder JavaProjectBuilder
+     * @param formats            formats to build, in order
+     */
+    public static void buildApiDoc(ApiConfig config, JavaProjectBuilder javaProjectBuilder, Collection<String> formats) {
+        List<String> formatList = new ArrayList<>();
+        for (String format : formats) {
+            String name = format.trim().toLowerCase(Locale.ROOT);
+            if ("torna".equals(name)) {
+                name = TORNA;
+            }
+            if (!isSupported(name)) {
+                throw new IllegalArgumentException("Unsupported doc format: " + format);
+            }
+            if (!formatList.contains(name)) {
+                formatList.add(name);
+            }
+        }
+        if (formatList.isEmpty()) {
+            return;
+        }
+        DocBuilderTemplate builderTemplate = new DocBuilderTemplate();
+        boolean onlyTorna = formatList.size() == 1 && TORNA.equals(formatList.get(0));
+        builderTemplate.checkAndInit(config, onlyTorna);
+        ProjectDocConfigBuilder configBuilder = new ProjectDocConfigBuilder(config, javaProjectBuilder);
+        Map<String, List<ApiDoc>> snapshots = new HashMap<>();
+        for (String format : formatList) {
+            boolean tree = OPENAPI.equals(format) || TORNA.equals(format);
+            boolean adoc = ADOC.equals(format);
+            config.setParamsDataToTree(tree);
+            config.setAdoc(adoc);
+            String variant = tree + ":" + adoc;
+            List<ApiDoc> snapshot = snapshots.get(variant);
+            if (snapshot == null) {
+                // build templates keep state such as the controller order counter, use a new one per variant
+                IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
+                snapshot = Collections.unmodifiableList(docBuildTemplate.getApiData(configBuilder));
+                snapshots.put(variant, snapshot);
+                log.fine("Fields cache after " + variant + " api data: hits " + configBuilder.getFieldsCacheHits()
+                        + ", misses " + configBuilder.getFieldsCacheMisses());
+            }
+            List<ApiDoc> apiDocList = copyOf(snapshot);
+            switch (format) {
+                case HTML:
+                    HtmlApiDocBuilder.buildApiDoc(apiDocList, config, javaProjectBuilder);
+                    break;
+                case MARKDOWN:
+                    ApiDocBuilder.buildApiDoc(apiDocList, config, javaProjectBuilder);
+                    break;
+                case ADOC:
+                    AdocDocBuilder.buildApiDoc(apiDocList, config, javaProjectBuilder);
+                    break;
+                case OPENAPI:
+                    OpenApiBuilder.buildOpenApi(apiDocList, config);
+                    break;
+                case POSTMAN:
+                    PostmanJsonBuilder.buildPostmanCollection(apiDocList, config);
+                    break;
+                default:
+                    IDocBuildTemplate groupTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
+                    TornaBuilder.buildTorna(groupTemplate.handleApiGroup(apiDocList, config), config, javaProjectBuilder);
+                    break;
+            }
+        }
+    }
+
+    public static boolean isSupported(String format) {
+        return HTML.equals(format) || MARKDOWN.equals(format) || ADOC.equals(format)
+                || OPENAPI.equals(format) || POSTMAN.equals(format) || TORNA.equals(format);
+    }
+
+    private static List<ApiDoc> copyOf(List<ApiDoc> snapshot) {
+        List<ApiDoc> apiDocList = new ArrayList<>(snapshot.size());
+        for (ApiDoc apiDoc : snapshot) {
+            apiDocList.add(ApiDoc.copyOf(apiDoc));
+        }
+        return apiDocList;
+    }
+}
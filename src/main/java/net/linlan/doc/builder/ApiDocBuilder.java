@@ -22,6 +22,7 @@ import net.linlan.doc.model.ApiDoc;
 import net.linlan.doc.template.IDocBuildTemplate;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.constants.DocGlobalConstants;
+import net.linlan.doc.utils.OutputSink;
 
 import java.util.List;
 
@@ -58,15 +59,32 @@ public class ApiDocBuilder {
         ProjectDocConfigBuilder configBuilder = new ProjectDocConfigBuilder(config, javaProjectBuilder);
         IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
         List<ApiDoc> apiDocList = docBuildTemplate.getApiData(configBuilder);
-        if (config.isAllInOne()) {
-            String version = config.isCoverOld() ? "" : "-V" + DateTimeUtil.long2Str(System.currentTimeMillis(), DATE_FORMAT);
-            String docName = builderTemplate.allInOneDocName(config,"AllInOne" + version + ".md",".md");
-            apiDocList = docBuildTemplate.handleApiGroup(apiDocList, config);
-            builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.ALL_IN_ONE_MD_TPL, docName);
-        } else {
-            builderTemplate.buildApiDoc(apiDocList, config, DocGlobalConstants.API_DOC_MD_TPL, API_EXTENSION);
-            builderTemplate.buildErrorCodeDoc(config, DocGlobalConstants.ERROR_CODE_LIST_MD_TPL, DocGlobalConstants.ERROR_CODE_LIST_MD);
-            builderTemplate.buildDirectoryDataDoc(config, javaProjectBuilder, DocGlobalConstants.DICT_LIST_MD_TPL, DocGlobalConstants.DICT_LIST_MD);
+        buildApiDoc(apiDocList, config, javaProjectBuilder);
+    }
+
+    /**
+     * Render markdown from an api data list that was already built.
+     *
+     * @param apiDocList         list of api doc
+     * @param config             ApiConfig
+     * @param javaProjectBuilder JavaProjectBuilder
+     */
+    public static void buildApiDoc(List<ApiDoc> apiDocList, ApiConfig config, JavaProjectBuilder javaProjectBuilder) {
+        DocBuilderTemplate builderTemplate = new DocBuilderTemplate();
+        IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
+        // versioned all in one docs of earlier runs are kept
+        boolean versioned = config.isAllInOne() && !config.isCoverOld();
+        try (OutputSink output = DocBuilderTemplate.openOutput(config, "markdown", !versioned)) {
+            if (config.isAllInOne()) {
+                String version = config.isCoverOld() ? "" : "-V" + DateTimeUtil.long2Str(System.currentTimeMillis(), DATE_FORMAT);
+                String docName = builderTemplate.allInOneDocName(config,"AllInOne" + version + ".md",".md");
+                apiDocList = docBuildTemplate.handleApiGroup(apiDocList, config);
+                builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.ALL_IN_ONE_MD_TPL, docName);
+            } else {
+                builderTemplate.buildApiDoc(apiDocList, config, DocGlobalConstants.API_DOC_MD_TPL, API_EXTENSION);
+                builderTemplate.buildErrorCodeDoc(config, DocGlobalConstants.ERROR_CODE_LIST_MD_TPL, DocGlobalConstants.ERROR_CODE_LIST_MD);
+                builderTemplate.buildDirectoryDataDoc(config, javaProjectBuilder, DocGlobalConstants.DICT_LIST_MD_TPL, DocGlobalConstants.DICT_LIST_MD);
+            }
         }
     }
 
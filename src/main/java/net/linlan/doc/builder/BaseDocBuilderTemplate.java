@@ -15,6 +15,7 @@
  */
 package net.linlan.doc.builder;
 
+import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.common.util.DateTimeUtil;
 import net.linlan.doc.utils.StringUtils;
 import net.linlan.doc.constants.DocGlobalConstants;
@@ -23,15 +24,13 @@ import net.linlan.doc.constants.FrameworkEnum;
 import net.linlan.doc.constants.TemplateVariable;
 import net.linlan.doc.model.ApiConfig;
 import net.linlan.doc.model.RevisionLog;
+import net.linlan.doc.utils.OutputSink;
 import org.beetl.core.Resource;
 import org.beetl.core.Template;
 import org.beetl.core.resource.ClasspathResourceLoader;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -42,6 +41,8 @@ public class BaseDocBuilderTemplate {
 
     public static long NOW = System.currentTimeMillis();
 
+    private volatile RenderContext renderContext;
+
     /**
      * check condition and init
      *
@@ -89,34 +90,32 @@ public class BaseDocBuilderTemplate {
     }
 
     public Map<String, String> setDirectoryLanguageVariable(ApiConfig config, Template mapper) {
-        Map<String, String> titleMap = new HashMap<>();
-        if (Objects.nonNull(config.getLanguage())) {
-            if (DocLanguage.CHINESE.code.equals(config.getLanguage().getCode())) {
-                mapper.binding(TemplateVariable.ERROR_LIST_TITLE.getVariable(), DocGlobalConstants.ERROR_CODE_LIST_CN_TITLE);
-                mapper.binding(TemplateVariable.DICT_LIST_TITLE.getVariable(), DocGlobalConstants.DICT_CN_TITLE);
-                titleMap.put(TemplateVariable.ERROR_LIST_TITLE.getVariable(), DocGlobalConstants.ERROR_CODE_LIST_CN_TITLE);
-                titleMap.put(TemplateVariable.DICT_LIST_TITLE.getVariable(), DocGlobalConstants.DICT_CN_TITLE);
-            } else {
-                mapper.binding(TemplateVariable.ERROR_LIST_TITLE.getVariable(), DocGlobalConstants.ERROR_CODE_LIST_EN_TITLE);
-                mapper.binding(TemplateVariable.DICT_LIST_TITLE.getVariable(), DocGlobalConstants.DICT_EN_TITLE);
-                titleMap.put(TemplateVariable.ERROR_LIST_TITLE.getVariable(), DocGlobalConstants.ERROR_CODE_LIST_EN_TITLE);
-                titleMap.put(TemplateVariable.DICT_LIST_TITLE.getVariable(), DocGlobalConstants.DICT_EN_TITLE);
-            }
-        } else {
-            mapper.binding(TemplateVariable.ERROR_LIST_TITLE.getVariable(), DocGlobalConstants.ERROR_CODE_LIST_CN_TITLE);
-            mapper.binding(TemplateVariable.DICT_LIST_TITLE.getVariable(), DocGlobalConstants.DICT_CN_TITLE);
-            titleMap.put(TemplateVariable.ERROR_LIST_TITLE.getVariable(), DocGlobalConstants.ERROR_CODE_LIST_CN_TITLE);
-            titleMap.put(TemplateVariable.DICT_LIST_TITLE.getVariable(), DocGlobalConstants.DICT_CN_TITLE);
+        Map<String, String> titleMap = RenderContext.languageTitles(config);
+        for (Map.Entry<String, String> entry : titleMap.entrySet()) {
+            mapper.binding(entry.getKey(), entry.getValue());
         }
         return titleMap;
     }
 
     public void setCssCDN(ApiConfig config, Template template) {
-        if (DocLanguage.CHINESE.equals(config.getLanguage())) {
-            template.binding(TemplateVariable.CSS_CND.getVariable(), DocGlobalConstants.CSS_CDN_CH);
-        } else {
-            template.binding(TemplateVariable.CSS_CND.getVariable(), DocGlobalConstants.CSS_CDN);
+        template.binding(TemplateVariable.CSS_CND.getVariable(), RenderContext.cssCdn(config));
+    }
+
+    /**
+     * Get the render context of the current run, it is built on first use and
+     * reused by every page rendered through this template builder.
+     *
+     * @param config             api config
+     * @param javaProjectBuilder JavaProjectBuilder
+     * @return RenderContext
+     */
+    public RenderContext getRenderContext(ApiConfig config, JavaProjectBuilder javaProjectBuilder) {
+        RenderContext context = this.renderContext;
+        if (Objects.isNull(context) || !context.isBuiltFor(config, javaProjectBuilder)) {
+            context = RenderContext.of(config, javaProjectBuilder);
+            this.renderContext = context;
         }
+        return context;
     }
 
     public String allInOneDocName(ApiConfig apiConfig, String fileName, String suffix) {
@@ -133,22 +132,52 @@ public class BaseDocBuilderTemplate {
             return fileName + suffix;
         }
     }
+    /**
+     * Open the output sink of a builder run
+     *
+     * @param config      api config
+     * @param source      name of the builder
+     * @param deleteStale delete the files the builder wrote last time but not this time
+     * @return OutputSink
+     */
+    public static OutputSink openOutput(ApiConfig config, String source, boolean deleteStale) {
+        if (!config.isOutputManifest()) {
+            return OutputSink.none();
+        }
+        return OutputSink.open(config.getOutPath(), source, deleteStale);
+    }
+
+    /**
+     * Open the output sink of a builder whose files are served as a static site, with
+     * gzip siblings when the config asks for them. Gzip output needs the output manifest.
+     *
+     * @param config      api config
+     * @param source      name of the builder
+     * @param deleteStale delete the files the builder wrote last time but not this time
+     * @return OutputSink
+     */
+    public static OutputSink openStaticOutput(ApiConfig config, String source, boolean deleteStale) {
+        if (config.isGzipOutput() && !config.isOutputManifest()) {
+            throw new RuntimeException("gzipOutput needs outputManifest, enable outputManifest or disable gzipOutput");
+        }
+        OutputSink output = openOutput(config, source, deleteStale);
+        if (config.isGzipOutput()) {
+            output.gzip(config.getGzipLevel());
+        }
+        return output;
+    }
+
     public static void copyJarFile(String source, String target) {
         ClasspathResourceLoader resourceLoader = new ClasspathResourceLoader("/template/");
         Resource resource = resourceLoader.getResource(source);
-        try (FileWriter fileWriter = new FileWriter(target, false);
-             Reader reader = resource.openReader()) {
-            char[] c = new char[1024 * 1024];
-            int temp;
-            int len = 0;
-            while ((temp = reader.read()) != -1) {
-                c[len] = (char) temp;
-                len++;
+        try (Reader reader = resource.openReader()) {
+            StringBuilder content = new StringBuilder();
+            char[] c = new char[8192];
+            int len;
+            while ((len = reader.read(c)) != -1) {
+                content.append(c, 0, len);
             }
-            reader.close();
-            BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
-            bufferedWriter.write(c, 0, len);
-            bufferedWriter.close();
+            OutputSink.write(content.toString(), target);
         } catch (IOException e) {
             e.printStackTrace();
         }
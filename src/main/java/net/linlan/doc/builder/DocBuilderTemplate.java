@@ -18,20 +18,23 @@ package net.linlan.doc.builder;
 import net.linlan.doc.common.util.CollectionUtil;
 import net.linlan.doc.common.util.DateTimeUtil;
 import net.linlan.doc.common.util.FileUtil;
-import net.linlan.doc.constants.DocLanguage;
-import net.linlan.doc.constants.HighlightStyle;
 import net.linlan.doc.constants.TemplateVariable;
 import net.linlan.doc.factory.BuildTemplateFactory;
 import net.linlan.doc.model.*;
 import net.linlan.doc.template.IDocBuildTemplate;
 import net.linlan.doc.utils.BeetlTemplateUtil;
 import net.linlan.doc.utils.DocUtil;
+import net.linlan.doc.utils.PageRenderer;
+import net.linlan.doc.utils.SearchIndexBuilder;
+import com.google.gson.Gson;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.constants.DocGlobalConstants;
 import net.linlan.doc.model.*;
 import org.beetl.core.Template;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -43,6 +46,8 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
 
     private static long now = System.currentTimeMillis();
 
+    private static final Gson GSON = new Gson();
+
     /**
      * get all api data
      *
@@ -72,14 +77,16 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
      */
     public void buildApiDoc(List<ApiDoc> apiDocList, ApiConfig config, String template, String fileExtension) {
         FileUtil.mkdirs(config.getOutPath());
-        for (ApiDoc doc : apiDocList) {
-            Template mapper = BeetlTemplateUtil.getByName(template);
-            mapper.binding(TemplateVariable.DESC.getVariable(), doc.getDesc());
-            mapper.binding(TemplateVariable.NAME.getVariable(), doc.getName());
-            mapper.binding(TemplateVariable.LIST.getVariable(), doc.getList());
-            mapper.binding(TemplateVariable.REQUEST_EXAMPLE.getVariable(), config.isRequestExample());
-            mapper.binding(TemplateVariable.RESPONSE_EXAMPLE.getVariable(), config.isResponseExample());
-            FileUtil.nioWriteFile(mapper.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + doc.getName() + fileExtension);
+        try (PageRenderer renderer = new PageRenderer(config.getParallelism())) {
+            for (ApiDoc doc : apiDocList) {
+                Template mapper = BeetlTemplateUtil.getByName(template);
+                mapper.binding(TemplateVariable.DESC.getVariable(), doc.getDesc());
+                mapper.binding(TemplateVariable.NAME.getVariable(), doc.getName());
+                mapper.binding(TemplateVariable.LIST.getVariable(), doc.getList());
+                mapper.binding(TemplateVariable.REQUEST_EXAMPLE.getVariable(), config.isRequestExample());
+                mapper.binding(TemplateVariable.RESPONSE_EXAMPLE.getVariable(), config.isResponseExample());
+                renderer.render(mapper, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + doc.getName() + fileExtension);
+            }
         }
     }
 
@@ -110,15 +117,84 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
      */
     public void buildDoc(List<ApiDoc> apiDocList, ApiConfig config, JavaProjectBuilder javaProjectBuilder,
                          String template, String outPutFileName, ApiDoc apiDoc, String index) {
+        try (PageRenderer renderer = new PageRenderer(1)) {
+            buildDoc(apiDocList, config, javaProjectBuilder, template, outPutFileName, apiDoc, index, renderer);
+        }
+    }
+
+    /**
+     * Merge all api doc into one document, the page is handed to a renderer
+     *
+     * @param apiDocList         list  data of Api doc
+     * @param config             api config
+     * @param javaProjectBuilder JavaProjectBuilder
+     * @param template           template
+     * @param outPutFileName     output file
+     * @param apiDoc             apiDoc
+     * @param index              index html
+     * @param renderer           page renderer
+     */
+    public void buildDoc(List<ApiDoc> apiDocList, ApiConfig config, JavaProjectBuilder javaProjectBuilder,
+                         String template, String outPutFileName, ApiDoc apiDoc, String index, PageRenderer renderer) {
+        Template tpl = bindDoc(apiDocList, config, javaProjectBuilder, template, apiDoc, index);
+        tpl.binding(TemplateVariable.FRAGMENTS.getVariable(), false);
+        renderer.render(tpl, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+    }
+
+    /**
+     * Merge all api doc into a shell page, the apis of every controller are written to a
+     * script fragment that the page loads when the user navigates to it
+     *
+     * @param apiDocList         list  data of Api doc
+     * @param config             api config
+     * @param javaProjectBuilder JavaProjectBuilder
+     * @param template           template
+     * @param outPutFileName     output file
+     */
+    public void buildAllInOneFragments(List<ApiDoc> apiDocList, ApiConfig config, JavaProjectBuilder javaProjectBuilder,
+                                       String template, String outPutFileName) {
+        Template tpl = bindDoc(apiDocList, config, javaProjectBuilder, template, null, null);
+        tpl.binding(TemplateVariable.FRAGMENTS.getVariable(), true);
+        BeetlTemplateUtil.renderToFile(tpl, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        String fragmentPath = config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR
+                + DocGlobalConstants.ALL_IN_ONE_FRAGMENT_DIR + DocGlobalConstants.FILE_SEPARATOR;
+        try (PageRenderer renderer = new PageRenderer(config.getParallelism())) {
+            for (ApiDoc apiGroup : apiDocList) {
+                if (CollectionUtil.isEmpty(apiGroup.getChildrenApiDocs())) {
+                    continue;
+                }
+                for (ApiDoc api : apiGroup.getChildrenApiDocs()) {
+                    Template fragment = BeetlTemplateUtil.getByName(DocGlobalConstants.ALL_IN_ONE_FRAGMENT_TPL);
+                    fragment.binding(TemplateVariable.API_GROUP.getVariable(), apiGroup);
+                    fragment.binding(TemplateVariable.API.getVariable(), api);
+                    fragment.binding(TemplateVariable.GROUP_COUNT.getVariable(), apiDocList.size());
+                    fragment.binding(TemplateVariable.REQUEST_EXAMPLE.getVariable(), config.isRequestExample());
+                    fragment.binding(TemplateVariable.RESPONSE_EXAMPLE.getVariable(), config.isResponseExample());
+                    fragment.binding(TemplateVariable.DISPLAY_REQUEST_PARAMS.getVariable(), config.isRequestParamsTable());
+                    fragment.binding(TemplateVariable.DISPLAY_RESPONSE_PARAMS.getVariable(), config.isResponseParamsTable());
+                    String anchor = "_" + apiGroup.getOrder() + "_" + api.getOrder() + "_";
+                    renderer.render(fragment, fragmentPath + apiGroup.getOrder() + "_" + api.getOrder() + ".js",
+                            page -> toFragmentScript(anchor, page));
+                }
+            }
+        }
+    }
+
+    private static byte[] toFragmentScript(String anchor, byte[] page) {
+        String html = new String(page, StandardCharsets.UTF_8);
+        String script = "loadDocFragment(" + GSON.toJson(anchor) + ", " + GSON.toJson(html) + ");\n";
+        return script.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Template bindDoc(List<ApiDoc> apiDocList, ApiConfig config, JavaProjectBuilder javaProjectBuilder,
+                             String template, ApiDoc apiDoc, String index) {
         String outPath = config.getOutPath();
         String strTime = DateTimeUtil.long2Str(now, DateTimeUtil.DATE_FORMAT_SECOND);
         FileUtil.mkdirs(outPath);
-        List<ApiErrorCode> errorCodeList = DocUtil.errorCodeDictToList(config);
+        RenderContext context = getRenderContext(config, javaProjectBuilder);
+        List<ApiErrorCode> errorCodeList = context.getErrorCodeList();
         Template tpl = BeetlTemplateUtil.getByName(template);
-        String style = config.getStyle();
-        tpl.binding(TemplateVariable.STYLE.getVariable(), style);
-        tpl.binding(TemplateVariable.HIGH_LIGHT_CSS_LINK.getVariable(), config.getHighlightStyleLink());
-        tpl.binding(TemplateVariable.BACKGROUND.getVariable(), HighlightStyle.getBackgroundColor(style));
+        context.bindStyle(tpl);
         tpl.binding(TemplateVariable.API_DOC_LIST.getVariable(), apiDocList);
         tpl.binding(TemplateVariable.ERROR_CODE_LIST.getVariable(), errorCodeList);
         tpl.binding(TemplateVariable.VERSION_LIST.getVariable(), config.getRevisionLogs());
@@ -130,7 +206,7 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
         tpl.binding(TemplateVariable.RESPONSE_EXAMPLE.getVariable(), config.isResponseExample());
         tpl.binding(TemplateVariable.DISPLAY_REQUEST_PARAMS.getVariable(), config.isRequestParamsTable());
         tpl.binding(TemplateVariable.DISPLAY_RESPONSE_PARAMS.getVariable(), config.isResponseParamsTable());
-        setCssCDN(config, tpl);
+        context.bindCssCdn(tpl);
         if (CollectionUtil.isEmpty(errorCodeList)) {
             tpl.binding(TemplateVariable.DICT_ORDER.getVariable(), apiDocList.size() + 1);
         } else {
@@ -141,14 +217,14 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
             tpl.binding(TemplateVariable.ORDER.getVariable(), apiDoc.order);
             tpl.binding(TemplateVariable.LIST.getVariable(), apiDoc.getList());//类名
         }
-        setDirectoryLanguageVariable(config, tpl);
-        List<ApiDocDict> apiDocDictList = DocUtil.buildDictionary(config, javaProjectBuilder);
-        tpl.binding(TemplateVariable.DICT_LIST.getVariable(), apiDocDictList);
-        FileUtil.nioWriteFile(tpl.render(), outPath + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        context.bindLanguageTitles(tpl);
+        tpl.binding(TemplateVariable.DICT_LIST.getVariable(), context.getDictList());
+        return tpl;
     }
 
     public void buildSearchJs(ApiConfig config, JavaProjectBuilder javaProjectBuilder, List<ApiDoc> apiDocList, String template) {
-        List<ApiErrorCode> errorCodeList = DocUtil.errorCodeDictToList(config);
+        RenderContext context = getRenderContext(config, javaProjectBuilder);
+        List<ApiErrorCode> errorCodeList = context.getErrorCodeList();
         Template tpl = BeetlTemplateUtil.getByName(template);
         // directory tree
         List<ApiDoc> apiDocs = new ArrayList<>();
@@ -159,7 +235,7 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
 
         boolean isOnlyDefaultGroup = apiDocList.size() == 1;
 
-        Map<String, String> titleMap = setDirectoryLanguageVariable(config, tpl);
+        Map<String, String> titleMap = context.bindLanguageTitles(tpl);
         // set error code
         if (CollectionUtil.isNotEmpty(errorCodeList)) {
             ApiDoc apiDoc1 = new ApiDoc();
@@ -176,7 +252,7 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
             }
         }
         // set dict list
-        List<ApiDocDict> apiDocDictList = DocUtil.buildDictionary(config, javaProjectBuilder);
+        List<ApiDocDict> apiDocDictList = context.getDictList();
         if (CollectionUtil.isNotEmpty(apiDocDictList)) {
             ApiDoc apiDoc1 = new ApiDoc();
             apiDoc1.setOrder((isOnlyDefaultGroup ? apiDocs.get(0).getChildrenApiDocs().size() : apiDocs.size()) + 1);
@@ -199,7 +275,54 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
             }
         }
         tpl.binding(TemplateVariable.API_DOC_LIST.getVariable(), apiDocs);
-        FileUtil.nioWriteFile(tpl.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.SEARCH_JS_OUT);
+        tpl.binding(TemplateVariable.SEARCH_INDEX.getVariable(),
+                buildSearchIndex(apiDocs, DocGlobalConstants.SEARCH_ALL_JS_TPL.equals(template)));
+        BeetlTemplateUtil.renderToFile(tpl, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.SEARCH_JS_OUT);
+    }
+
+    /**
+     * Index the directory tree of the search js. Entries of the all in one tree are
+     * [group, controller, method], the others are [controller, method], -1 marks a
+     * group or controller entry.
+     *
+     * @param apiDocs directory tree
+     * @param grouped whether the tree is grouped
+     * @return index json
+     */
+    private static String buildSearchIndex(List<ApiDoc> apiDocs, boolean grouped) {
+        SearchIndexBuilder index = new SearchIndexBuilder();
+        for (int i = 0; i < apiDocs.size(); i++) {
+            ApiDoc apiDoc = apiDocs.get(i);
+            if (!grouped) {
+                indexApiDoc(index, new int[]{i}, apiDoc);
+                continue;
+            }
+            index.add(new int[]{i, -1, -1}, apiDoc.getGroup());
+            List<ApiDoc> children = apiDoc.getChildrenApiDocs();
+            if (CollectionUtil.isEmpty(children)) {
+                continue;
+            }
+            for (int j = 0; j < children.size(); j++) {
+                indexApiDoc(index, new int[]{i, j}, children.get(j));
+            }
+        }
+        return index.toJson();
+    }
+
+    private static void indexApiDoc(SearchIndexBuilder index, int[] path, ApiDoc apiDoc) {
+        int[] apiPath = Arrays.copyOf(path, path.length + 1);
+        apiPath[path.length] = -1;
+        index.add(apiPath, apiDoc.getDesc(), apiDoc.getName());
+        List<ApiMethodDoc> methodDocs = apiDoc.getList();
+        if (CollectionUtil.isEmpty(methodDocs)) {
+            return;
+        }
+        for (int m = 0; m < methodDocs.size(); m++) {
+            ApiMethodDoc methodDoc = methodDocs.get(m);
+            int[] methodPath = Arrays.copyOf(path, path.length + 1);
+            methodPath[path.length] = m;
+            index.add(methodPath, methodDoc.getDesc(), methodDoc.getName(), methodDoc.getPath());
+        }
     }
 
 
@@ -211,13 +334,13 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
      * @param outPutFileName output file
      */
     public void buildErrorCodeDoc(ApiConfig config, String template, String outPutFileName) {
-        List<ApiErrorCode> errorCodeList = DocUtil.errorCodeDictToList(config);
+        RenderContext context = getRenderContext(config, null);
         String strTime = DateTimeUtil.long2Str(now, DateTimeUtil.DATE_FORMAT_SECOND);
         Template tpl = BeetlTemplateUtil.getByName(template);
-        setCssCDN(config, tpl);
+        context.bindCssCdn(tpl);
         tpl.binding(TemplateVariable.CREATE_TIME.getVariable(), strTime);
-        tpl.binding(TemplateVariable.LIST.getVariable(), errorCodeList);
-        FileUtil.nioWriteFile(tpl.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        tpl.binding(TemplateVariable.LIST.getVariable(), context.getErrorCodeList());
+        BeetlTemplateUtil.renderToFile(tpl, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
     }
 
     /**
@@ -232,30 +355,27 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
      */
     public void buildErrorCodeDoc(ApiConfig config, JavaProjectBuilder javaProjectBuilder,
                                   List<ApiDoc> apiDocList, String template, String outPutFileName, String indexAlias) {
-        List<ApiErrorCode> errorCodeList = DocUtil.errorCodeDictToList(config);
+        RenderContext context = getRenderContext(config, javaProjectBuilder);
+        List<ApiErrorCode> errorCodeList = context.getErrorCodeList();
         String strTime = DateTimeUtil.long2Str(now, DateTimeUtil.DATE_FORMAT_SECOND);
         Template errorTemplate = BeetlTemplateUtil.getByName(template);
         errorTemplate.binding(TemplateVariable.PROJECT_NAME.getVariable(), config.getProjectName());
-        String style = config.getStyle();
-        errorTemplate.binding(TemplateVariable.HIGH_LIGHT_CSS_LINK.getVariable(), config.getHighlightStyleLink());
-        errorTemplate.binding(TemplateVariable.STYLE.getVariable(), style);
+        context.bindStyle(errorTemplate);
         if (CollectionUtil.isEmpty(errorCodeList)) {
             errorTemplate.binding(TemplateVariable.DICT_ORDER.getVariable(), apiDocList.size() + 1);
         } else {
             errorTemplate.binding(TemplateVariable.DICT_ORDER.getVariable(), apiDocList.size() + 2);
         }
         // set css cdn
-        setCssCDN(config, errorTemplate);
-        List<ApiDocDict> apiDocDictList = DocUtil.buildDictionary(config, javaProjectBuilder);
+        context.bindCssCdn(errorTemplate);
         errorTemplate.binding(TemplateVariable.CREATE_TIME.getVariable(), strTime);
         errorTemplate.binding(TemplateVariable.VERSION.getVariable(), now);
-        errorTemplate.binding(TemplateVariable.DICT_LIST.getVariable(), apiDocDictList);
+        errorTemplate.binding(TemplateVariable.DICT_LIST.getVariable(), context.getDictList());
         errorTemplate.binding(TemplateVariable.INDEX_ALIAS.getVariable(), indexAlias);
         errorTemplate.binding(TemplateVariable.API_DOC_LIST.getVariable(), apiDocList);
-        errorTemplate.binding(TemplateVariable.BACKGROUND.getVariable(), HighlightStyle.getBackgroundColor(style));
         errorTemplate.binding(TemplateVariable.ERROR_CODE_LIST.getVariable(), errorCodeList);
-        setDirectoryLanguageVariable(config, errorTemplate);
-        FileUtil.nioWriteFile(errorTemplate.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        context.bindLanguageTitles(errorTemplate);
+        BeetlTemplateUtil.renderToFile(errorTemplate, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
 
     }
 
@@ -271,21 +391,14 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
      */
     public void buildDirectoryDataDoc(ApiConfig config, JavaProjectBuilder javaProjectBuilder, List<ApiDoc> apiDocList,
                                       String template, String outPutFileName, String indexAlias) {
-        List<ApiDocDict> directoryList = DocUtil.buildDictionary(config, javaProjectBuilder);
+        RenderContext context = getRenderContext(config, javaProjectBuilder);
         Template mapper = BeetlTemplateUtil.getByName(template);
         String strTime = DateTimeUtil.long2Str(now, DateTimeUtil.DATE_FORMAT_SECOND);
         mapper.binding(TemplateVariable.PROJECT_NAME.getVariable(), config.getProjectName());
-        String style = config.getStyle();
-        mapper.binding(TemplateVariable.HIGH_LIGHT_CSS_LINK.getVariable(), config.getHighlightStyleLink());
-        mapper.binding(TemplateVariable.STYLE.getVariable(), style);
-        List<ApiErrorCode> errorCodeList = DocUtil.errorCodeDictToList(config);
+        context.bindStyle(mapper);
+        List<ApiErrorCode> errorCodeList = context.getErrorCodeList();
         // set css cdn
-        setCssCDN(config, mapper);
-        if (DocLanguage.CHINESE.equals(config.getLanguage())) {
-            mapper.binding(TemplateVariable.CSS_CND.getVariable(), DocGlobalConstants.CSS_CDN_CH);
-        } else {
-            mapper.binding(TemplateVariable.CSS_CND.getVariable(), DocGlobalConstants.CSS_CDN);
-        }
+        context.bindCssCdn(mapper);
         if (CollectionUtil.isNotEmpty(errorCodeList)) {
             mapper.binding(TemplateVariable.DICT_ORDER.getVariable(), apiDocList.size() + 2);
         } else {
@@ -296,11 +409,10 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
         mapper.binding(TemplateVariable.VERSION.getVariable(), now);
         mapper.binding(TemplateVariable.API_DOC_LIST.getVariable(), apiDocList);
         mapper.binding(TemplateVariable.INDEX_ALIAS.getVariable(), indexAlias);
-        mapper.binding(TemplateVariable.BACKGROUND.getVariable(), HighlightStyle.getBackgroundColor(style));
         mapper.binding(TemplateVariable.ERROR_CODE_LIST.getVariable(), errorCodeList);
-        setDirectoryLanguageVariable(config, mapper);
-        mapper.binding(TemplateVariable.DICT_LIST.getVariable(), directoryList);
-        FileUtil.nioWriteFile(mapper.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        context.bindLanguageTitles(mapper);
+        mapper.binding(TemplateVariable.DICT_LIST.getVariable(), context.getDictList());
+        BeetlTemplateUtil.renderToFile(mapper, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
     }
 
     /**
@@ -312,15 +424,15 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
      * @param outPutFileName     output file
      */
     public void buildDirectoryDataDoc(ApiConfig config, JavaProjectBuilder javaProjectBuilder, String template, String outPutFileName) {
-        List<ApiDocDict> directoryList = DocUtil.buildDictionary(config, javaProjectBuilder);
+        RenderContext context = getRenderContext(config, javaProjectBuilder);
         Template mapper = BeetlTemplateUtil.getByName(template);
-        setDirectoryLanguageVariable(config, mapper);
+        context.bindLanguageTitles(mapper);
         // set css cdn
-        setCssCDN(config, mapper);
+        context.bindCssCdn(mapper);
         String strTime = DateTimeUtil.long2Str(now, DateTimeUtil.DATE_FORMAT_SECOND);
         mapper.binding(TemplateVariable.CREATE_TIME.getVariable(), strTime);
-        mapper.binding(TemplateVariable.DICT_LIST.getVariable(), directoryList);
-        FileUtil.nioWriteFile(mapper.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        mapper.binding(TemplateVariable.DICT_LIST.getVariable(), context.getDictList());
+        BeetlTemplateUtil.renderToFile(mapper, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
     }
 
 
@@ -341,7 +453,7 @@ public class DocBuilderTemplate extends BaseDocBuilderTemplate {
         mapper.binding(TemplateVariable.DESC.getVariable(), doc.getDesc());
         mapper.binding(TemplateVariable.NAME.getVariable(), doc.getName());
         mapper.binding(TemplateVariable.LIST.getVariable(), doc.getList());
-        FileUtil.writeFileNotAppend(mapper.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + doc.getName() + fileExtension);
+        BeetlTemplateUtil.renderToFile(mapper, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + doc.getName() + fileExtension);
     }
 
 
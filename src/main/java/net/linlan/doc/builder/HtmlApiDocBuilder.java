@@ -21,12 +21,16 @@ import net.linlan.doc.model.ApiConfig;
 import net.linlan.doc.model.ApiDoc;
 import net.linlan.doc.template.IDocBuildTemplate;
 import net.linlan.doc.utils.BeetlTemplateUtil;
+import net.linlan.doc.utils.PageRenderer;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.constants.DocGlobalConstants;
 import org.beetl.core.Template;
 import net.linlan.doc.utils.StringUtils;
+import net.linlan.doc.utils.OutputSink;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Logger;
 
 /**
  * @author yu 2019/9/20.
@@ -34,6 +38,8 @@ import java.util.List;
  */
 public class HtmlApiDocBuilder {
 
+    private static final Logger log = Logger.getLogger(HtmlApiDocBuilder.class.getName());
+
     private static final String ERROR_CODE_HTML = "error.html";
     private static final String DICT_HTML = "dict.html";
     private static long now = System.currentTimeMillis();
@@ -62,47 +68,101 @@ public class HtmlApiDocBuilder {
         ProjectDocConfigBuilder configBuilder = new ProjectDocConfigBuilder(config, javaProjectBuilder);
         IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
         List<ApiDoc> apiDocList = docBuildTemplate.getApiData(configBuilder);
-        Template indexCssTemplate = BeetlTemplateUtil.getByName(DocGlobalConstants.ALL_IN_ONE_CSS);
-        FileUtil.nioWriteFile(indexCssTemplate.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.ALL_IN_ONE_CSS_OUT);
-        builderTemplate.copyJarFile("js/" + DocGlobalConstants.HIGH_LIGHT_JS, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.HIGH_LIGHT_JS);
-        builderTemplate.copyJarFile("css/" + DocGlobalConstants.FONT_STYLE, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.FONT_STYLE);
-        builderTemplate.copyJarFile("js/" + DocGlobalConstants.JQUERY, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.JQUERY);
-        builderTemplate.copyJarFile("css/" + DocGlobalConstants.HIGH_LIGHT_STYLE, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.HIGH_LIGHT_STYLE);
+        buildApiDoc(apiDocList, config, javaProjectBuilder);
+    }
+
+    /**
+     * Render html from an api data list that was already built.
+     *
+     * @param apiDocList         list of api doc
+     * @param config             ApiConfig
+     * @param javaProjectBuilder JavaProjectBuilder
+     */
+    public static void buildApiDoc(List<ApiDoc> apiDocList, ApiConfig config, JavaProjectBuilder javaProjectBuilder) {
+        DocBuilderTemplate builderTemplate = new DocBuilderTemplate();
+        long compiled = BeetlTemplateUtil.getCompileCount();
+        // compile the templates before pages are rendered on several threads
+        BeetlTemplateUtil.warmUp(templateNames(config));
+        try (OutputSink output = DocBuilderTemplate.openStaticOutput(config, "html", true)) {
+            IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
+            Template indexCssTemplate = BeetlTemplateUtil.getByName(DocGlobalConstants.ALL_IN_ONE_CSS);
+            BeetlTemplateUtil.renderToFile(indexCssTemplate, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.ALL_IN_ONE_CSS_OUT);
+            builderTemplate.copyJarFile("js/" + DocGlobalConstants.HIGH_LIGHT_JS, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.HIGH_LIGHT_JS);
+            builderTemplate.copyJarFile("css/" + DocGlobalConstants.FONT_STYLE, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.FONT_STYLE);
+            builderTemplate.copyJarFile("js/" + DocGlobalConstants.JQUERY, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.JQUERY);
+            builderTemplate.copyJarFile("css/" + DocGlobalConstants.HIGH_LIGHT_STYLE, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.HIGH_LIGHT_STYLE);
+            if (config.isAllInOne()) {
+                apiDocList = docBuildTemplate.handleApiGroup(apiDocList, config);
+                if (config.isCreateDebugPage()) {
+                    INDEX_HTML = DocGlobalConstants.DEBUG_PAGE_ALL_TPL;
+                    if (StringUtils.isNotEmpty(config.getAllInOneDocFileName())) {
+                        INDEX_HTML = config.getAllInOneDocFileName();
+                    }
+                    builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.DEBUG_PAGE_ALL_TPL, INDEX_HTML);
+                    Template mockJs = BeetlTemplateUtil.getByName(DocGlobalConstants.DEBUG_JS_TPL);
+                    BeetlTemplateUtil.renderToFile(mockJs, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.DEBUG_JS_OUT);
+                } else {
+                    if (StringUtils.isNotEmpty(config.getAllInOneDocFileName())) {
+                        INDEX_HTML = config.getAllInOneDocFileName();
+                    }
+                    if (config.isAllInOneFragments()) {
+                        builderTemplate.buildAllInOneFragments(apiDocList, config, javaProjectBuilder, DocGlobalConstants.ALL_IN_ONE_HTML_TPL, INDEX_HTML);
+                    } else {
+                        builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.ALL_IN_ONE_HTML_TPL, INDEX_HTML);
+                    }
+                }
+                builderTemplate.buildSearchJs(config, javaProjectBuilder, apiDocList, DocGlobalConstants.SEARCH_ALL_JS_TPL);
+            } else {
+                String indexAlias;
+                if (config.isCreateDebugPage()) {
+                    indexAlias = "debug";
+                    buildDoc(builderTemplate, apiDocList, config, javaProjectBuilder, DocGlobalConstants.DEBUG_PAGE_SINGLE_TPL, indexAlias);
+                    Template mockJs = BeetlTemplateUtil.getByName(DocGlobalConstants.DEBUG_JS_TPL);
+                    BeetlTemplateUtil.renderToFile(mockJs, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.DEBUG_JS_OUT);
+                } else {
+                    indexAlias = "api";
+                    buildDoc(builderTemplate, apiDocList, config, javaProjectBuilder, DocGlobalConstants.SINGLE_INDEX_HTML_TPL, indexAlias);
+                }
+                builderTemplate.buildErrorCodeDoc(config, javaProjectBuilder, apiDocList, DocGlobalConstants.SINGLE_ERROR_HTML_TPL,
+                        ERROR_CODE_HTML, indexAlias);
+                builderTemplate.buildDirectoryDataDoc(config, javaProjectBuilder, apiDocList,
+                        DocGlobalConstants.SINGLE_DICT_HTML_TPL, DICT_HTML, indexAlias);
+                builderTemplate.buildSearchJs(config, javaProjectBuilder, apiDocList, DocGlobalConstants.SEARCH_JS_TPL);
+            }
+        }
+        log.fine("Html templates compiled: " + (BeetlTemplateUtil.getCompileCount() - compiled));
+    }
+
+    /**
+     * @param config ApiConfig
+     * @return templates the html build renders
+     */
+    private static String[] templateNames(ApiConfig config) {
+        List<String> names = new ArrayList<>();
+        names.add(DocGlobalConstants.ALL_IN_ONE_CSS);
         if (config.isAllInOne()) {
-            apiDocList = docBuildTemplate.handleApiGroup(apiDocList, config);
             if (config.isCreateDebugPage()) {
-                INDEX_HTML = DocGlobalConstants.DEBUG_PAGE_ALL_TPL;
-                if (StringUtils.isNotEmpty(config.getAllInOneDocFileName())) {
-                    INDEX_HTML = config.getAllInOneDocFileName();
-                }
-                builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.DEBUG_PAGE_ALL_TPL, INDEX_HTML);
-                Template mockJs = BeetlTemplateUtil.getByName(DocGlobalConstants.DEBUG_JS_TPL);
-                FileUtil.nioWriteFile(mockJs.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.DEBUG_JS_OUT);
+                names.add(DocGlobalConstants.DEBUG_PAGE_ALL_TPL);
+                names.add(DocGlobalConstants.DEBUG_JS_TPL);
             } else {
-                if (StringUtils.isNotEmpty(config.getAllInOneDocFileName())) {
-                    INDEX_HTML = config.getAllInOneDocFileName();
+                names.add(DocGlobalConstants.ALL_IN_ONE_HTML_TPL);
+                if (config.isAllInOneFragments()) {
+                    names.add(DocGlobalConstants.ALL_IN_ONE_FRAGMENT_TPL);
                 }
-                builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.ALL_IN_ONE_HTML_TPL, INDEX_HTML);
             }
-            builderTemplate.buildSearchJs(config, javaProjectBuilder, apiDocList, DocGlobalConstants.SEARCH_ALL_JS_TPL);
+            names.add(DocGlobalConstants.SEARCH_ALL_JS_TPL);
         } else {
-            String indexAlias;
             if (config.isCreateDebugPage()) {
-                indexAlias = "debug";
-                buildDoc(builderTemplate, apiDocList, config, javaProjectBuilder, DocGlobalConstants.DEBUG_PAGE_SINGLE_TPL, indexAlias);
-                Template mockJs = BeetlTemplateUtil.getByName(DocGlobalConstants.DEBUG_JS_TPL);
-                FileUtil.nioWriteFile(mockJs.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.DEBUG_JS_OUT);
+                names.add(DocGlobalConstants.DEBUG_PAGE_SINGLE_TPL);
+                names.add(DocGlobalConstants.DEBUG_JS_TPL);
             } else {
-                indexAlias = "api";
-                buildDoc(builderTemplate, apiDocList, config, javaProjectBuilder, DocGlobalConstants.SINGLE_INDEX_HTML_TPL, indexAlias);
+                names.add(DocGlobalConstants.SINGLE_INDEX_HTML_TPL);
             }
-            builderTemplate.buildErrorCodeDoc(config, javaProjectBuilder, apiDocList, DocGlobalConstants.SINGLE_ERROR_HTML_TPL,
-                    ERROR_CODE_HTML, indexAlias);
-            builderTemplate.buildDirectoryDataDoc(config, javaProjectBuilder, apiDocList,
-                    DocGlobalConstants.SINGLE_DICT_HTML_TPL, DICT_HTML, indexAlias);
-            builderTemplate.buildSearchJs(config, javaProjectBuilder, apiDocList, DocGlobalConstants.SEARCH_JS_TPL);
+            names.add(DocGlobalConstants.SINGLE_ERROR_HTML_TPL);
+            names.add(DocGlobalConstants.SINGLE_DICT_HTML_TPL);
+            names.add(DocGlobalConstants.SEARCH_JS_TPL);
         }
-
+        return names.toArray(new String[0]);
     }
 
     /**
@@ -120,13 +180,15 @@ public class HtmlApiDocBuilder {
                                  String template, String indexHtml) {
         FileUtil.mkdirs(config.getOutPath());
         int index = 0;
-        for (ApiDoc doc : apiDocList) {
-            if (index == 0) {
-                doc.setAlias(indexHtml);
+        try (PageRenderer renderer = new PageRenderer(config.getParallelism())) {
+            for (ApiDoc doc : apiDocList) {
+                if (index == 0) {
+                    doc.setAlias(indexHtml);
+                }
+                builderTemplate.buildDoc(apiDocList, config, javaProjectBuilder, template,
+                        doc.getAlias() + ".html", doc, indexHtml, renderer);
+                index++;
             }
-            builderTemplate.buildDoc(apiDocList, config, javaProjectBuilder, template,
-                    doc.getAlias() + ".html", doc, indexHtml);
-            index++;
         }
     }
 }
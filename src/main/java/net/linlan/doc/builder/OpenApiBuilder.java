@@ -15,8 +15,10 @@
  */
 package net.linlan.doc.builder;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import net.linlan.doc.common.util.CollectionUtil;
-import net.linlan.doc.common.util.FileUtil;
 import net.linlan.doc.utils.StringUtils;
 import net.linlan.doc.constants.DocGlobalConstants;
 import net.linlan.doc.constants.Methods;
@@ -24,11 +26,17 @@ import net.linlan.doc.factory.BuildTemplateFactory;
 import net.linlan.doc.model.*;
 import net.linlan.doc.template.IDocBuildTemplate;
 import com.thoughtworks.qdox.JavaProjectBuilder;
+import net.linlan.doc.utils.DocClassUtil;
 import net.linlan.doc.utils.DocUtil;
-import net.linlan.doc.utils.JsonUtil;
+import net.linlan.doc.utils.JavaClassValidateUtil;
 import net.linlan.doc.utils.StringUtilsExt;
+import net.linlan.doc.utils.OutputSink;
 import net.linlan.doc.model.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -38,6 +46,8 @@ public class OpenApiBuilder {
 
     private static final String PATH_REGEX = "[/{};\\t+]";
 
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
     /**
      * Build OpenApi json
      *
@@ -75,17 +85,65 @@ public class OpenApiBuilder {
         config.setParamsDataToTree(true);
         IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
         List<ApiDoc> apiDocList = docBuildTemplate.getApiData(configBuilder);
-        Map<String, Object> json = new HashMap<>(8);
-        json.put("openapi", "3.0.3");
-        json.put("info", buildInfo(config));
-        json.put("servers", buildServers(config));
-        json.put("paths", buildPaths(apiDocList));
-        json.put("components", buildComponentsSchema(apiDocList));
+        buildOpenApi(apiDocList, config);
+    }
 
+    /**
+     * Write OpenApi json from an api data list that was already built
+     * with params data to tree. The json is streamed to the file one
+     * operation and one schema at a time, the whole spec is never held in memory.
+     * Object types are written once under components and referenced with $ref.
+     *
+     * @param apiDocList List of api
+     * @param config     ApiConfig
+     */
+    public static void buildOpenApi(List<ApiDoc> apiDocList, ApiConfig config) {
         String filePath = config.getOutPath();
         filePath = filePath + DocGlobalConstants.OPEN_API_JSON;
-        String data = JsonUtil.toPrettyJson(json);
-        FileUtil.nioWriteFile(data, filePath);
+        Components components = new Components();
+        for (ApiDoc apiDoc : apiDocList) {
+            for (ApiMethodDoc method : apiDoc.getList()) {
+                components.collect(method.getRequestParams());
+                components.collect(method.getResponseParams());
+            }
+        }
+        components.assignNames();
+        try (OutputSink output = DocBuilderTemplate.openStaticOutput(config, "openapi", true);
+             OutputSink.FileOutput file = OutputSink.newOutputStream(filePath)) {
+            // the file is only replaced by a spec that was written to the end
+            JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8)));
+            writer.setIndent("  ");
+            writer.setSerializeNulls(false);
+            writer.beginObject();
+            writer.name("openapi").value("3.0.3");
+            writer.name("info");
+            writeValue(writer, buildInfo(config));
+            writer.name("servers");
+            writeValue(writer, buildServers(config));
+            writer.name("paths");
+            writePaths(writer, apiDocList, components);
+            writer.name("components");
+            writeComponentsSchema(writer, apiDocList, components);
+            writer.endObject();
+            writer.flush();
+            file.commit();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write a value that was built as maps and lists
+     *
+     * @param writer JsonWriter
+     * @param value  value
+     */
+    private static void writeValue(JsonWriter writer, Object value) {
+        if (Objects.isNull(value)) {
+            GSON.toJson(null, Object.class, writer);
+        } else {
+            GSON.toJson(value, value.getClass(), writer);
+        }
     }
 
     /**
@@ -116,46 +174,35 @@ public class OpenApiBuilder {
     }
 
     /**
-     * Build openapi paths
+     * Write openapi paths. The methods are grouped by url first, the operations
+     * are only built while they are written.
      *
+     * @param writer     JsonWriter
      * @param apiDocList List of api
-     * @return
+     * @param components component schemas
+     * @throws IOException IOException
      */
-    private static Map<String, Object> buildPaths(List<ApiDoc> apiDocList) {
-        Map<String, Object> pathMap = new HashMap<>(500);
-        apiDocList.forEach(
-                a -> {
-                    List<ApiMethodDoc> apiMethodDocs = a.getList();
-                    apiMethodDocs.forEach(
-                            method -> {
-                                //replace '//' to '/'
-                                String url = method.getPath().replace("//", "/");
-                                Map<String, Object> request = buildPathUrls(method, a);
-                                //pathMap.put(method.getPath().replace("//", "/"), buildPathUrls(method, a));
-                                if (!pathMap.containsKey(url)) {
-                                    pathMap.put(url, request);
-                                } else {
-                                    Map<String, Object> oldRequest = (Map<String, Object>) pathMap.get(url);
-                                    oldRequest.putAll(request);
-                                }
-                            }
-                    );
-                }
-        );
-        return pathMap;
-    }
-
-    /**
-     * Build path urls
-     *
-     * @param apiMethodDoc Method
-     * @param apiDoc       ApiDoc
-     * @return
-     */
-    private static Map<String, Object> buildPathUrls(ApiMethodDoc apiMethodDoc, ApiDoc apiDoc) {
-        Map<String, Object> request = new HashMap<>(4);
-        request.put(apiMethodDoc.getType().toLowerCase(), buildPathUrlsRequest(apiMethodDoc, apiDoc));
-        return request;
+    private static void writePaths(JsonWriter writer, List<ApiDoc> apiDocList, Components components) throws IOException {
+        Map<String, Map<String, ApiMethodDoc>> pathMap = new LinkedHashMap<>(500);
+        Map<ApiMethodDoc, ApiDoc> apiDocs = new IdentityHashMap<>(500);
+        for (ApiDoc apiDoc : apiDocList) {
+            for (ApiMethodDoc method : apiDoc.getList()) {
+                //replace '//' to '/', a later method of the same url and type replaces the earlier one
+                String url = method.getPath().replace("//", "/");
+                pathMap.computeIfAbsent(url, k -> new LinkedHashMap<>(4)).put(method.getType().toLowerCase(), method);
+                apiDocs.put(method, apiDoc);
+            }
+        }
+        writer.beginObject();
+        for (Map.Entry<String, Map<String, ApiMethodDoc>> path : pathMap.entrySet()) {
+            writer.name(path.getKey()).beginObject();
+            for (Map.Entry<String, ApiMethodDoc> operation : path.getValue().entrySet()) {
+                writer.name(operation.getKey());
+                writeValue(writer, buildPathUrlsRequest(operation.getValue(), apiDocs.get(operation.getValue()), components));
+            }
+            writer.endObject();
+        }
+        writer.endObject();
     }
 
     /**
@@ -163,9 +210,10 @@ public class OpenApiBuilder {
      *
      * @param apiMethodDoc 方法参数
      * @param apiDoc       类参数
+     * @param components   component schemas
      * @return
      */
-    private static Map<String, Object> buildPathUrlsRequest(ApiMethodDoc apiMethodDoc, ApiDoc apiDoc) {
+    private static Map<String, Object> buildPathUrlsRequest(ApiMethodDoc apiMethodDoc, ApiDoc apiDoc, Components components) {
         Map<String, Object> request = new HashMap<>(20);
         request.put("summary", apiMethodDoc.getDesc());
         request.put("description", apiMethodDoc.getDetail());
@@ -174,9 +222,9 @@ public class OpenApiBuilder {
         } else {
             request.put("tags", new String[]{apiDoc.getDesc()});
         }
-        request.put("requestBody", buildRequestBody(apiMethodDoc));
+        request.put("requestBody", buildRequestBody(apiMethodDoc, components));
         request.put("parameters", buildParameters(apiMethodDoc));
-        request.put("responses", buildResponses(apiMethodDoc));
+        request.put("responses", buildResponses(apiMethodDoc, components));
         request.put("deprecated", apiMethodDoc.isDeprecated());
         request.put("operationId", apiMethodDoc.getMethodId());
         return request;
@@ -186,16 +234,17 @@ public class OpenApiBuilder {
      * Build request body
      *
      * @param apiMethodDoc ApiMethodDoc
+     * @param components   component schemas
      * @return
      */
-    private static Map<String, Object> buildRequestBody(ApiMethodDoc apiMethodDoc) {
+    private static Map<String, Object> buildRequestBody(ApiMethodDoc apiMethodDoc, Components components) {
         Map<String, Object> requestBody = new HashMap<>(8);
         boolean isPost = (apiMethodDoc.getType().equals(Methods.POST.getValue())
                 || apiMethodDoc.getType().equals(Methods.PUT.getValue()) ||
                 apiMethodDoc.getType().equals(Methods.PATCH.getValue()));
         //add content of post method
         if (isPost) {
-            requestBody.put("content", buildContent(apiMethodDoc, false));
+            requestBody.put("content", buildContent(apiMethodDoc, false, components));
             return requestBody;
         }
 
@@ -207,15 +256,16 @@ public class OpenApiBuilder {
      *
      * @param apiMethodDoc 方法参数
      * @param isRep        是否是返回数据
+     * @param components   component schemas
      * @return
      */
-    private static Map<String, Object> buildContent(ApiMethodDoc apiMethodDoc, boolean isRep) {
+    private static Map<String, Object> buildContent(ApiMethodDoc apiMethodDoc, boolean isRep, Components components) {
         Map<String, Object> content = new HashMap<>(8);
         String contentType = apiMethodDoc.getContentType();
         if (isRep) {
             contentType = "*/*";
         }
-        content.put(contentType, buildContentBody(apiMethodDoc, isRep));
+        content.put(contentType, buildContentBody(apiMethodDoc, isRep, components));
         return content;
 
     }
@@ -225,9 +275,10 @@ public class OpenApiBuilder {
      *
      * @param apiMethodDoc 方法参数
      * @param isRep        是否是返回数据
+     * @param components   component schemas
      * @return
      */
-    private static Map<String, Object> buildContentBody(ApiMethodDoc apiMethodDoc, boolean isRep) {
+    private static Map<String, Object> buildContentBody(ApiMethodDoc apiMethodDoc, boolean isRep, Components components) {
         Map<String, Object> content = new HashMap<>(8);
         if (Objects.nonNull(apiMethodDoc.getReturnSchema()) && isRep) {
             content.put("schema", apiMethodDoc.getReturnSchema());
@@ -264,7 +315,7 @@ public class OpenApiBuilder {
             } else if (!isRep && Objects.nonNull(apiMethodDoc.getRequestSchema())) {
                 content.put("schema", apiMethodDoc.getRequestSchema());
             } else {
-                content.put("schema", buildBodySchema(apiMethodDoc, isRep));
+                content.put("schema", buildBodySchema(apiMethodDoc, isRep, components));
             }
         }
         content.put("examples", buildBodyExample(apiMethodDoc, isRep));
@@ -277,15 +328,22 @@ public class OpenApiBuilder {
      *
      * @param apiMethodDoc 请求方法参数 去除server
      * @param isRep        是否是返回数据
+     * @param components   component schemas
      * @return
      */
-    private static Map<String, Object> buildBodySchema(ApiMethodDoc apiMethodDoc, boolean isRep) {
+    private static Map<String, Object> buildBodySchema(ApiMethodDoc apiMethodDoc, boolean isRep, Components components) {
         Map<String, Object> schema = new HashMap<>(10);
         //当类型为数组时使用
         Map<String, Object> innerScheme = new HashMap<>(10);
-        //去除url中的特殊字符
-        String responseRef = "#/components/schemas/" + apiMethodDoc.getPath().replaceAll(PATH_REGEX, "_") + "response";
-        String requestRef = "#/components/schemas/" + apiMethodDoc.getPath().replaceAll(PATH_REGEX, "_") + "request";
+        //去除url中的特殊字符, 整个body是一个类型时引用该类型的schema
+        String responseRef = components.ref(apiMethodDoc.getResponseParams());
+        if (Objects.isNull(responseRef)) {
+            responseRef = "#/components/schemas/" + apiMethodDoc.getPath().replaceAll(PATH_REGEX, "_") + "response";
+        }
+        String requestRef = components.ref(apiMethodDoc.getRequestParams());
+        if (Objects.isNull(requestRef)) {
+            requestRef = "#/components/schemas/" + apiMethodDoc.getPath().replaceAll(PATH_REGEX, "_") + "request";
+        }
         //如果是数组类型
         if (apiMethodDoc.isListParam()) {
             schema.put("type", DocGlobalConstants.ARRAY);
@@ -436,11 +494,12 @@ public class OpenApiBuilder {
      * build response
      *
      * @param apiMethodDoc ApiMethodDoc
+     * @param components   component schemas
      * @return
      */
-    private static Map<String, Object> buildResponses(ApiMethodDoc apiMethodDoc) {
+    private static Map<String, Object> buildResponses(ApiMethodDoc apiMethodDoc, Components components) {
         Map<String, Object> response = new HashMap<>(10);
-        response.put("200", buildResponsesBody(apiMethodDoc));
+        response.put("200", buildResponsesBody(apiMethodDoc, components));
         return response;
     }
 
@@ -448,57 +507,99 @@ public class OpenApiBuilder {
      * response body
      *
      * @param apiMethodDoc ApiMethodDoc
+     * @param components   component schemas
      * @return
      */
-    private static Map<String, Object> buildResponsesBody(ApiMethodDoc apiMethodDoc) {
+    private static Map<String, Object> buildResponsesBody(ApiMethodDoc apiMethodDoc, Components components) {
         Map<String, Object> responseBody = new HashMap<>(10);
         responseBody.put("description", "OK");
-        responseBody.put("content", buildContent(apiMethodDoc, true));
+        responseBody.put("content", buildContent(apiMethodDoc, true, components));
         return responseBody;
     }
 
     /**
-     * component schema
+     * Write component schema. The object types come first, then one schema per
+     * method whose body is not a single type. Methods of the same path share
+     * such a schema name, the last of them is written.
      *
-     * @param apiDocs List of ApiDoc
-     * @return
+     * @param writer     JsonWriter
+     * @param apiDocs    List of ApiDoc
+     * @param components component schemas
+     * @throws IOException IOException
      */
-    private static Map<String, Object> buildComponentsSchema(List<ApiDoc> apiDocs) {
-        Map<String, Object> schemas = new HashMap<>(4);
-        Map<String, Object> component = new HashMap<>();
-        apiDocs.forEach(
-                a -> {
-                    List<ApiMethodDoc> apiMethodDocs = a.getList();
-                    apiMethodDocs.forEach(
-                            method -> {
-                                //request components
-                                List<ApiParam> requestParams = method.getRequestParams();
-                                if (CollectionUtil.isNotEmpty(requestParams)) {
-                                    Map<String, Object> prop = buildProperties(requestParams);
-                                    if (Objects.nonNull(prop) && prop.size() > 0) {
-                                        component.put(method.getPath().replaceAll(PATH_REGEX, "_") + "request", buildProperties(requestParams));
-                                    }
-                                } else {
-                                    component.put(method.getPath().replaceAll(PATH_REGEX, "_") + "request", new HashMap<>(0));
-                                }
-                                //response components
-                                List<ApiParam> responseParams = method.getResponseParams();
-                                component.put(method.getPath().replaceAll(PATH_REGEX, "_") + "response", buildProperties(responseParams));
-                            }
-                    );
+    private static void writeComponentsSchema(JsonWriter writer, List<ApiDoc> apiDocs, Components components) throws IOException {
+        Map<String, ApiMethodDoc> requests = new LinkedHashMap<>();
+        Map<String, ApiMethodDoc> responses = new LinkedHashMap<>();
+        for (ApiDoc apiDoc : apiDocs) {
+            for (ApiMethodDoc method : apiDoc.getList()) {
+                String name = method.getPath().replaceAll(PATH_REGEX, "_");
+                //request components
+                List<ApiParam> requestParams = method.getRequestParams();
+                if (CollectionUtil.isEmpty(requestParams) || hasProperties(requestParams)) {
+                    requests.put(name + "request", method);
                 }
-        );
-        schemas.put("schemas", component);
-        return schemas;
+                //response components
+                responses.put(name + "response", method);
+            }
+        }
+        writer.beginObject();
+        writer.name("schemas").beginObject();
+        for (Map.Entry<String, List<ApiParam>> type : components.types.entrySet()) {
+            writer.name(components.names.get(type.getKey()));
+            writeValue(writer, buildProperties(type.getValue(), components));
+        }
+        for (Map.Entry<String, ApiMethodDoc> request : requests.entrySet()) {
+            List<ApiParam> requestParams = request.getValue().getRequestParams();
+            if (CollectionUtil.isEmpty(requestParams)) {
+                writer.name(request.getKey());
+                writeValue(writer, new HashMap<>(0));
+            } else if (Objects.isNull(components.ref(requestParams))) {
+                writer.name(request.getKey());
+                writeValue(writer, buildProperties(requestParams, components));
+            }
+        }
+        for (Map.Entry<String, ApiMethodDoc> response : responses.entrySet()) {
+            List<ApiParam> responseParams = response.getValue().getResponseParams();
+            Map<String, Object> properties = Objects.isNull(components.ref(responseParams))
+                    ? buildProperties(responseParams, components) : null;
+            if (Objects.nonNull(properties)) {
+                writer.name(response.getKey());
+                writeValue(writer, properties);
+            }
+        }
+        writer.endObject();
+        writer.endObject();
     }
 
     /**
-     * component schema properties
+     * Whether {@link #buildProperties(List)} builds a non empty schema for the params
      *
      * @param apiParam list of ApiParam
+     * @return boolean
+     */
+    private static boolean hasProperties(List<ApiParam> apiParam) {
+        for (ApiParam param : apiParam) {
+            if (param.isRequired()) {
+                return true;
+            }
+            if (param.getType().equals("map") && apiParam.size() == 1) {
+                continue;
+            }
+            if (!param.isQueryParam() && !param.isPathParam()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * component schema properties
+     *
+     * @param apiParam   list of ApiParam
+     * @param components component schemas
      * @return
      */
-    private static Map<String, Object> buildProperties(List<ApiParam> apiParam) {
+    private static Map<String, Object> buildProperties(List<ApiParam> apiParam, Components components) {
         Map<String, Object> component = new HashMap<>();
         Map<String, Object> propertiesData = new LinkedHashMap<>();
         List<String> requiredList = new ArrayList<>();
@@ -515,7 +616,7 @@ public class OpenApiBuilder {
                     continue;
                 }
                 String field = param.getField();
-                propertiesData.put(field, buildPropertiesData(param));
+                propertiesData.put(field, buildPropertiesData(param, components));
             }
             if (!propertiesData.isEmpty()) {
                 component.put("properties", propertiesData);
@@ -533,11 +634,13 @@ public class OpenApiBuilder {
     /**
      * component schema properties data
      *
-     * @param apiParam ApiParam
+     * @param apiParam   ApiParam
+     * @param components component schemas
      * @return
      */
-    private static Map<String, Object> buildPropertiesData(ApiParam apiParam) {
+    private static Map<String, Object> buildPropertiesData(ApiParam apiParam, Components components) {
         Map<String, Object> propertiesData = new HashMap<>();
+        String ref = components.ref(apiParam.getChildren());
         String openApiType = DocUtil.javaTypeToOpenApiTypeConvert(apiParam.getType());
         //array object file map
         propertiesData.put("description", apiParam.getDesc());
@@ -551,17 +654,27 @@ public class OpenApiBuilder {
             propertiesData.put("description", apiParam.getDesc() + "(map data)");
         }
         if ("object".equals(apiParam.getType())) {
-            if (apiParam.getChildren() != null) {
+            if (Objects.nonNull(ref)) {
+                // siblings of a $ref are ignored, the description stays with the type
+                propertiesData.clear();
+                propertiesData.put("$ref", ref);
+            } else if (apiParam.getChildren() != null) {
+                Map<String, Object> properties = buildProperties(apiParam.getChildren(), components);
                 propertiesData.put("type", "object");
                 propertiesData.put("description", apiParam.getDesc() + "(object)");
-                propertiesData.put("properties", buildProperties(apiParam.getChildren()).get("properties"));
-                propertiesData.put("requires", buildProperties(apiParam.getChildren()).get("requires"));
+                propertiesData.put("properties", properties.get("properties"));
+                propertiesData.put("requires", properties.get("requires"));
             }
         }
         if ("array".equals(apiParam.getType())) {
-            if (apiParam.getChildren() != null) {
+            if (Objects.nonNull(ref)) {
+                Map<String, Object> items = new HashMap<>(2);
+                items.put("$ref", ref);
+                propertiesData.put("type", "array");
+                propertiesData.put("items", items);
+            } else if (apiParam.getChildren() != null) {
                 propertiesData.put("type", "array");
-                propertiesData.put("items", buildProperties(apiParam.getChildren()));
+                propertiesData.put("items", buildProperties(apiParam.getChildren(), components));
             }
 
         }
@@ -571,4 +684,201 @@ public class OpenApiBuilder {
         }
         return propertiesData;
     }
+
+    /**
+     * Component schemas of the object types in request and response params. A schema is
+     * identified by the generic name of the class its fields belong to and by what is written
+     * for it, so {@code Page<User>} and {@code Page<Role>} are two schemas, and so are the
+     * expansions of one type that differ in required fields, e.g. by validation group, or in
+     * read only and write only fields. Differing expansions get a numbered name. An expansion
+     * that was only cut short at a circular reference or the recursion limit is written as
+     * the largest expansion it is part of, so a cyclic type refers to itself.
+     */
+    private static class Components {
+
+        private static final String REF_PREFIX = "#/components/schemas/";
+
+        /**
+         * written shape of every collected params list
+         */
+        private final Map<List<ApiParam>, String> shapes = new IdentityHashMap<>();
+
+        /**
+         * schema key of the params lists that are the fields of one type
+         */
+        private final Map<List<ApiParam>, String> keys = new IdentityHashMap<>();
+
+        private final Map<String, String> keysByShape = new HashMap<>();
+
+        private final Map<String, List<ApiParam>> types = new LinkedHashMap<>();
+
+        /**
+         * number of params in every collected params tree
+         */
+        private final Map<List<ApiParam>, Integer> sizes = new IdentityHashMap<>();
+
+        private final Map<String, String> names = new HashMap<>();
+
+        /**
+         * Collect the types of a params tree
+         *
+         * @param params params tree
+         */
+        void collect(List<ApiParam> params) {
+            shape(params);
+        }
+
+        /**
+         * Shape of the params as they are written, the fields of a type stand for their key
+         *
+         * @param params params
+         * @return shape
+         */
+        private String shape(List<ApiParam> params) {
+            if (CollectionUtil.isEmpty(params)) {
+                return "";
+            }
+            String shape = shapes.get(params);
+            if (Objects.nonNull(shape)) {
+                return shape;
+            }
+            StringBuilder builder = new StringBuilder();
+            int size = params.size();
+            for (ApiParam param : params) {
+                builder.append(param.getField()).append('\u0000').append(param.getType())
+                        .append('\u0000').append(param.getDesc()).append('\u0000').append(param.isRequired())
+                        .append(param.isQueryParam()).append(param.isPathParam())
+                        .append('{').append(shape(param.getChildren())).append("}\n");
+                if (CollectionUtil.isNotEmpty(param.getChildren())) {
+                    size += sizes.get(param.getChildren());
+                }
+            }
+            shape = builder.toString();
+            String owner = owner(params);
+            if (Objects.nonNull(owner)) {
+                String key = keysByShape.get(owner + '\u0000' + shape);
+                if (Objects.isNull(key)) {
+                    key = owner + "#" + keysByShape.size();
+                    keysByShape.put(owner + '\u0000' + shape, key);
+                    types.put(key, params);
+                }
+                keys.put(params, key);
+                shape = "$" + key;
+            }
+            shapes.put(params, shape);
+            sizes.put(params, size);
+            return shape;
+        }
+
+        /**
+         * Name the schemas after the simple names of the type, e.g. {@code Page_User},
+         * a clash with another type or another expansion gets a number. An expansion that
+         * is a cut short part of a larger one takes the name of the larger one.
+         */
+        void assignNames() {
+            Map<String, List<String>> expansions = new LinkedHashMap<>();
+            for (String key : types.keySet()) {
+                expansions.computeIfAbsent(owner(key), k -> new ArrayList<>()).add(key);
+            }
+            Map<String, String> parts = new HashMap<>();
+            for (List<String> keyList : expansions.values()) {
+                List<String> sorted = new ArrayList<>(keyList);
+                sorted.sort(Comparator.comparing((String key) -> sizes.get(types.get(key))).reversed());
+                List<String> written = new ArrayList<>();
+                for (String key : sorted) {
+                    String whole = null;
+                    for (String other : written) {
+                        if (isPartOf(types.get(key), types.get(other))) {
+                            whole = other;
+                            break;
+                        }
+                    }
+                    if (Objects.isNull(whole)) {
+                        written.add(key);
+                    } else {
+                        parts.put(key, whole);
+                    }
+                }
+            }
+            types.keySet().removeAll(parts.keySet());
+            Set<String> used = new HashSet<>();
+            for (String key : types.keySet()) {
+                String base = owner(key)
+                        .replaceAll("[\\w$]+\\.", "")
+                        .replaceAll("[^A-Za-z0-9_.-]+", "_")
+                        .replaceAll("^_+|_+$", "");
+                String name = base;
+                for (int i = 2; !used.add(name); i++) {
+                    name = base + "_" + i;
+                }
+                names.put(key, name);
+            }
+            for (Map.Entry<String, String> part : parts.entrySet()) {
+                names.put(part.getKey(), names.get(part.getValue()));
+            }
+        }
+
+        /**
+         * Whether an expansion is the same as a larger one except for fields whose
+         * children were cut off
+         */
+        private static boolean isPartOf(List<ApiParam> params, List<ApiParam> whole) {
+            if (params.size() != whole.size()) {
+                return false;
+            }
+            for (int i = 0; i < params.size(); i++) {
+                ApiParam param = params.get(i);
+                ApiParam other = whole.get(i);
+                if (!Objects.equals(param.getField(), other.getField()) || !Objects.equals(param.getType(), other.getType())
+                        || !Objects.equals(param.getDesc(), other.getDesc()) || param.isRequired() != other.isRequired()
+                        || param.isQueryParam() != other.isQueryParam() || param.isPathParam() != other.isPathParam()
+                        || !Objects.equals(param.getOwnerClassName(), other.getOwnerClassName())) {
+                    return false;
+                }
+                if (CollectionUtil.isEmpty(param.getChildren())) {
+                    continue;
+                }
+                if (CollectionUtil.isEmpty(other.getChildren()) || !isPartOf(param.getChildren(), other.getChildren())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * $ref of the type the params belong to
+         *
+         * @param params params
+         * @return $ref or null when the params are not the fields of one type
+         */
+        String ref(List<ApiParam> params) {
+            if (CollectionUtil.isEmpty(params)) {
+                return null;
+            }
+            String key = keys.get(params);
+            return Objects.isNull(key) ? null : REF_PREFIX + names.get(key);
+        }
+
+        private static String owner(String key) {
+            return key.substring(0, key.lastIndexOf('#'));
+        }
+
+        private static String owner(List<ApiParam> params) {
+            String owner = null;
+            for (ApiParam param : params) {
+                if (param.isQueryParam() || param.isPathParam()) {
+                    continue;
+                }
+                if (Objects.isNull(param.getOwnerClassName())
+                        || (Objects.nonNull(owner) && !owner.equals(param.getOwnerClassName()))) {
+                    return null;
+                }
+                owner = param.getOwnerClassName();
+            }
+            if (Objects.isNull(owner) || JavaClassValidateUtil.isPrimitive(DocClassUtil.getSimpleName(owner))) {
+                return null;
+            }
+            return owner.replaceAll("\\s", "");
+        }
+    }
 }
@@ -16,7 +16,6 @@
 package net.linlan.doc.builder;
 
 import net.linlan.doc.common.util.CollectionUtil;
-import net.linlan.doc.common.util.FileUtil;
 import net.linlan.doc.utils.StringUtils;
 import net.linlan.doc.constants.DocGlobalConstants;
 import net.linlan.doc.factory.BuildTemplateFactory;
@@ -32,6 +31,7 @@ import net.linlan.doc.model.postman.request.header.HeaderBean;
 import net.linlan.doc.template.IDocBuildTemplate;
 import net.linlan.doc.utils.DocPathUtil;
 import net.linlan.doc.utils.JsonUtil;
+import net.linlan.doc.utils.OutputSink;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.model.*;
 
@@ -214,6 +214,16 @@ public class PostmanJsonBuilder {
     private static void postManCreate(ApiConfig config, ProjectDocConfigBuilder configBuilder) {
         IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
         List<ApiDoc> apiDocList = docBuildTemplate.getApiData(configBuilder);
+        buildPostmanCollection(apiDocList, config);
+    }
+
+    /**
+     * Write postman json from an api data list that was already built.
+     *
+     * @param apiDocList list of api doc
+     * @param config     ApiConfig
+     */
+    public static void buildPostmanCollection(List<ApiDoc> apiDocList, ApiConfig config) {
         RequestItem requestItem = new RequestItem();
         requestItem.setInfo(new InfoBean(config.getProjectName()));
         List<ItemBean> itemBeans = new ArrayList<>();
@@ -227,7 +237,9 @@ public class PostmanJsonBuilder {
         String filePath = config.getOutPath();
         filePath = filePath + DocGlobalConstants.POSTMAN_JSON;
         String data = JsonUtil.toPrettyJson(requestItem);
-        FileUtil.nioWriteFile(data, filePath);
+        try (OutputSink output = DocBuilderTemplate.openStaticOutput(config, "postman", true)) {
+            OutputSink.write(data, filePath);
+        }
     }
 
 }
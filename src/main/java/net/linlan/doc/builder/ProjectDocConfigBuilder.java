@@ -21,6 +21,9 @@ import net.linlan.doc.utils.StringUtils;
 import net.linlan.doc.constants.DocGlobalConstants;
 import net.linlan.doc.constants.HighlightStyle;
 import net.linlan.doc.model.*;
+import net.linlan.doc.helper.JsonBuildHelper;
+import net.linlan.doc.helper.ParamsBuildHelper;
+import net.linlan.doc.helper.TypeSchemaCache;
 import net.linlan.doc.utils.JavaClassUtil;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import com.thoughtworks.qdox.model.JavaClass;
@@ -29,6 +32,7 @@ import net.linlan.doc.model.*;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
@@ -54,6 +58,26 @@ public class ProjectDocConfigBuilder {
 
     private ApiConfig apiConfig;
 
+    private final TypeSchemaCache typeSchemaCache = new TypeSchemaCache(this);
+
+    /**
+     * expanded params subtrees, they depend on the api config of this builder
+     */
+    private final Map<String, ParamsBuildHelper.ParamsSubtree> paramsSubtrees = new ConcurrentHashMap<>();
+
+    /**
+     * written json examples, they depend on the api config of this builder
+     */
+    private final Map<String, JsonBuildHelper.JsonFragment> jsonFragments = new ConcurrentHashMap<>();
+
+    /**
+     * resolved fields keyed by generic fully qualified name
+     */
+    private final Map<String, List<DocJavaField>> fieldsCache = new ConcurrentHashMap<>();
+
+    private final AtomicLong fieldsCacheHits = new AtomicLong();
+
+    private final AtomicLong fieldsCacheMisses = new AtomicLong();
 
     public ProjectDocConfigBuilder(ApiConfig apiConfig, JavaProjectBuilder javaProjectBuilder) {
         if (null == apiConfig) {
@@ -88,7 +112,7 @@ public class ProjectDocConfigBuilder {
 
     public JavaClass getClassByName(String simpleName) {
         JavaClass cls = javaProjectBuilder.getClassByName(simpleName);
-        List<DocJavaField> fieldList = JavaClassUtil.getFields(cls, 0, new LinkedHashMap<>());
+        List<DocJavaField> fieldList = getFields(cls);
         // handle inner class
         if (Objects.isNull(cls.getFields()) || fieldList.isEmpty()) {
             cls = classFilesMap.get(simpleName);
@@ -101,6 +125,31 @@ public class ProjectDocConfigBuilder {
         return cls;
     }
 
+    /**
+     * Get fields. Fields of a class are resolved once per generic binding and shared,
+     * the returned list and its fields are read only.
+     *
+     * @param cls The JavaClass object
+     * @return list of JavaField
+     */
+    public List<DocJavaField> getFields(JavaClass cls) {
+        if (null == cls) {
+            return new ArrayList<>();
+        }
+        String key = cls.getGenericFullyQualifiedName();
+        List<DocJavaField> fieldList = fieldsCache.get(key);
+        if (Objects.nonNull(fieldList)) {
+            fieldsCacheHits.incrementAndGet();
+            return fieldList;
+        }
+        fieldsCacheMisses.incrementAndGet();
+        fieldList = JavaClassUtil.getFields(cls, 0, new LinkedHashMap<>());
+        fieldList.forEach(DocJavaField::freeze);
+        fieldList = Collections.unmodifiableList(fieldList);
+        List<DocJavaField> previous = fieldsCache.putIfAbsent(key, fieldList);
+        return Objects.isNull(previous) ? fieldList : previous;
+    }
+
     private void loadJavaSource(List<SourceCodePath> paths, JavaProjectBuilder builder) {
         if (CollectionUtil.isEmpty(paths)) {
             builder.addSourceTree(new File(DocGlobalConstants.PROJECT_CODE_PATH));
@@ -224,6 +273,26 @@ public class ProjectDocConfigBuilder {
         return javaProjectBuilder;
     }
 
+    public TypeSchemaCache getTypeSchemaCache() {
+        return typeSchemaCache;
+    }
+
+    public Map<String, ParamsBuildHelper.ParamsSubtree> getParamsSubtrees() {
+        return paramsSubtrees;
+    }
+
+    public Map<String, JsonBuildHelper.JsonFragment> getJsonFragments() {
+        return jsonFragments;
+    }
+
+    public long getFieldsCacheHits() {
+        return fieldsCacheHits.get();
+    }
+
+    public long getFieldsCacheMisses() {
+        return fieldsCacheMisses.get();
+    }
+
 
     public Map<String, JavaClass> getClassFilesMap() {
         return classFilesMap;
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.builder;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import net.linlan.doc.constants.DocGlobalConstants;
+import net.linlan.doc.constants.DocLanguage;
+import net.linlan.doc.constants.HighlightStyle;
+import net.linlan.doc.constants.TemplateVariable;
+import net.linlan.doc.model.ApiConfig;
+import net.linlan.doc.model.ApiDocDict;
+import net.linlan.doc.model.ApiErrorCode;
+import net.linlan.doc.utils.DocUtil;
+import org.beetl.core.Template;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bindings shared by every page of one doc run. Error codes and dictionaries are
+ * resolved through reflection, so they are built once here instead of once per page.
+ *
+ * @author yu 2026/10/17.
+ */
+public final class RenderContext {
+
+    private final ApiConfig config;
+
+    private final JavaProjectBuilder javaProjectBuilder;
+
+    private final List<ApiErrorCode> errorCodeList;
+
+    private final List<ApiDocDict> dictList;
+
+    private final String style;
+
+    private final String highlightStyleLink;
+
+    private final String background;
+
+    private final String cssCdn;
+
+    private final Map<String, String> titleMap;
+
+    private RenderContext(ApiConfig config, JavaProjectBuilder javaProjectBuilder) {
+        this.config = config;
+        this.javaProjectBuilder = javaProjectBuilder;
+        this.errorCodeList = Collections.unmodifiableList(DocUtil.errorCodeDictToList(config));
+        // rpc builders have no source model, their templates never bind dictionaries
+        this.dictList = Objects.isNull(javaProjectBuilder) ? Collections.emptyList()
+                : Collections.unmodifiableList(DocUtil.buildDictionary(config, javaProjectBuilder));
+        this.style = config.getStyle();
+        this.highlightStyleLink = config.getHighlightStyleLink();
+        this.background = HighlightStyle.getBackgroundColor(style);
+        this.cssCdn = cssCdn(config);
+        this.titleMap = Collections.unmodifiableMap(languageTitles(config));
+    }
+
+    /**
+     * Build the context of a run
+     *
+     * @param config             api config
+     * @param javaProjectBuilder JavaProjectBuilder, may be null when no dictionary is rendered
+     * @return RenderContext
+     */
+    public static RenderContext of(ApiConfig config, JavaProjectBuilder javaProjectBuilder) {
+        return new RenderContext(config, javaProjectBuilder);
+    }
+
+    /**
+     * Whether this context was built for the given run
+     *
+     * @param config             api config
+     * @param javaProjectBuilder JavaProjectBuilder, null matches any
+     * @return boolean
+     */
+    public boolean isBuiltFor(ApiConfig config, JavaProjectBuilder javaProjectBuilder) {
+        return this.config == config
+                && (Objects.isNull(javaProjectBuilder) || this.javaProjectBuilder == javaProjectBuilder);
+    }
+
+    public static String cssCdn(ApiConfig config) {
+        if (DocLanguage.CHINESE.equals(config.getLanguage())) {
+            return DocGlobalConstants.CSS_CDN_CH;
+        }
+        return DocGlobalConstants.CSS_CDN;
+    }
+
+    public static Map<String, String> languageTitles(ApiConfig config) {
+        Map<String, String> titleMap = new HashMap<>();
+        if (Objects.isNull(config.getLanguage()) || DocLanguage.CHINESE.code.equals(config.getLanguage().getCode())) {
+            titleMap.put(TemplateVariable.ERROR_LIST_TITLE.getVariable(), DocGlobalConstants.ERROR_CODE_LIST_CN_TITLE);
+            titleMap.put(TemplateVariable.DICT_LIST_TITLE.getVariable(), DocGlobalConstants.DICT_CN_TITLE);
+        } else {
+            titleMap.put(TemplateVariable.ERROR_LIST_TITLE.getVariable(), DocGlobalConstants.ERROR_CODE_LIST_EN_TITLE);
+            titleMap.put(TemplateVariable.DICT_LIST_TITLE.getVariable(), DocGlobalConstants.DICT_EN_TITLE);
+        }
+        return titleMap;
+    }
+
+    /**
+     * Bind style, highlight css link and background
+     *
+     * @param template template
+     */
+    public void bindStyle(Template template) {
+        template.binding(TemplateVariable.STYLE.getVariable(), style);
+        template.binding(TemplateVariable.HIGH_LIGHT_CSS_LINK.getVariable(), highlightStyleLink);
+        template.binding(TemplateVariable.BACKGROUND.getVariable(), background);
+    }
+
+    public void bindCssCdn(Template template) {
+        template.binding(TemplateVariable.CSS_CND.getVariable(), cssCdn);
+    }
+
+    /**
+     * Bind the error code and dictionary titles of the configured language
+     *
+     * @param template template
+     * @return title map
+     */
+    public Map<String, String> bindLanguageTitles(Template template) {
+        for (Map.Entry<String, String> entry : titleMap.entrySet()) {
+            template.binding(entry.getKey(), entry.getValue());
+        }
+        return titleMap;
+    }
+
+    public List<ApiErrorCode> getErrorCodeList() {
+        return errorCodeList;
+    }
+
+    public List<ApiDocDict> getDictList() {
+        return dictList;
+    }
+
+    public Map<String, String> getTitleMap() {
+        return titleMap;
+    }
+}
@@ -23,6 +23,7 @@ import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.builder.ProjectDocConfigBuilder;
 import net.linlan.doc.constants.DocGlobalConstants;
 import net.linlan.doc.template.IDocBuildTemplate;
+import net.linlan.doc.utils.OutputSink;
 
 import java.util.List;
 
@@ -60,12 +61,14 @@ public class RpcAdocBuilder {
         ProjectDocConfigBuilder configBuilder = new ProjectDocConfigBuilder(config, javaProjectBuilder);
         IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
         List<RpcApiDoc> apiDocList = docBuildTemplate.getApiData(configBuilder);
-        if (config.isAllInOne()) {
-            String docName = builderTemplate.allInOneDocName(config, INDEX_DOC, ".adoc");
-            builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.RPC_ALL_IN_ONE_ADOC_TPL, docName);
-        } else {
-            builderTemplate.buildApiDoc(apiDocList, config, DocGlobalConstants.RPC_API_DOC_ADOC_TPL, API_EXTENSION);
-            builderTemplate.buildErrorCodeDoc(config, DocGlobalConstants.ERROR_CODE_LIST_ADOC_TPL, DocGlobalConstants.ERROR_CODE_LIST_ADOC);
+        try (OutputSink output = RpcDocBuilderTemplate.openOutput(config, "rpc-adoc", true)) {
+            if (config.isAllInOne()) {
+                String docName = builderTemplate.allInOneDocName(config, INDEX_DOC, ".adoc");
+                builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.RPC_ALL_IN_ONE_ADOC_TPL, docName);
+            } else {
+                builderTemplate.buildApiDoc(apiDocList, config, DocGlobalConstants.RPC_API_DOC_ADOC_TPL, API_EXTENSION);
+                builderTemplate.buildErrorCodeDoc(config, DocGlobalConstants.ERROR_CODE_LIST_ADOC_TPL, DocGlobalConstants.ERROR_CODE_LIST_ADOC);
+            }
         }
     }
 
@@ -21,6 +21,7 @@ import net.linlan.doc.common.util.FileUtil;
 import net.linlan.doc.utils.StringUtils;
 import net.linlan.doc.builder.BaseDocBuilderTemplate;
 import net.linlan.doc.builder.ProjectDocConfigBuilder;
+import net.linlan.doc.builder.RenderContext;
 import net.linlan.doc.constants.FrameworkEnum;
 import net.linlan.doc.constants.TemplateVariable;
 import net.linlan.doc.factory.BuildTemplateFactory;
@@ -31,6 +32,7 @@ import net.linlan.doc.model.rpc.RpcApiDoc;
 import net.linlan.doc.template.IDocBuildTemplate;
 import net.linlan.doc.utils.BeetlTemplateUtil;
 import net.linlan.doc.utils.DocUtil;
+import net.linlan.doc.utils.PageRenderer;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.constants.DocGlobalConstants;
 import org.beetl.core.Template;
@@ -66,16 +68,18 @@ public class RpcDocBuilderTemplate extends BaseDocBuilderTemplate {
      */
     public void buildApiDoc(List<RpcApiDoc> apiDocList, ApiConfig config, String template, String fileExtension) {
         FileUtil.mkdirs(config.getOutPath());
-        for (RpcApiDoc rpcDoc : apiDocList) {
-            Template mapper = BeetlTemplateUtil.getByName(template);
-            mapper.binding(TemplateVariable.DESC.getVariable(), rpcDoc.getDesc());
-            mapper.binding(TemplateVariable.NAME.getVariable(), rpcDoc.getName());
-            mapper.binding(TemplateVariable.LIST.getVariable(), rpcDoc.getList());
-            mapper.binding(TemplateVariable.AUTHOR.getVariable(), rpcDoc.getAuthor());
-            mapper.binding(TemplateVariable.PROTOCOL.getVariable(), rpcDoc.getProtocol());
-            mapper.binding(TemplateVariable.VERSION.getVariable(), rpcDoc.getVersion());
-            mapper.binding(TemplateVariable.URI.getVariable(), rpcDoc.getUri());
-            FileUtil.nioWriteFile(mapper.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + rpcDoc.getShortName() + fileExtension);
+        try (PageRenderer renderer = new PageRenderer(config.getParallelism())) {
+            for (RpcApiDoc rpcDoc : apiDocList) {
+                Template mapper = BeetlTemplateUtil.getByName(template);
+                mapper.binding(TemplateVariable.DESC.getVariable(), rpcDoc.getDesc());
+                mapper.binding(TemplateVariable.NAME.getVariable(), rpcDoc.getName());
+                mapper.binding(TemplateVariable.LIST.getVariable(), rpcDoc.getList());
+                mapper.binding(TemplateVariable.AUTHOR.getVariable(), rpcDoc.getAuthor());
+                mapper.binding(TemplateVariable.PROTOCOL.getVariable(), rpcDoc.getProtocol());
+                mapper.binding(TemplateVariable.VERSION.getVariable(), rpcDoc.getVersion());
+                mapper.binding(TemplateVariable.URI.getVariable(), rpcDoc.getUri());
+                renderer.render(mapper, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + rpcDoc.getShortName() + fileExtension);
+            }
         }
     }
 
@@ -97,7 +101,9 @@ public class RpcDocBuilderTemplate extends BaseDocBuilderTemplate {
             rpcConfigConfigContent = FileUtil.getFileContent(rpcConfig);
         }
         FileUtil.mkdirs(outPath);
-        List<ApiErrorCode> errorCodeList = DocUtil.errorCodeDictToList(config);
+        // rpc pages never bind dictionaries
+        RenderContext context = getRenderContext(config, null);
+        List<ApiErrorCode> errorCodeList = context.getErrorCodeList();
         Template tpl = BeetlTemplateUtil.getByName(template);
         tpl.binding(TemplateVariable.API_DOC_LIST.getVariable(), apiDocList);
         tpl.binding(TemplateVariable.ERROR_CODE_LIST.getVariable(), errorCodeList);
@@ -107,9 +113,9 @@ public class RpcDocBuilderTemplate extends BaseDocBuilderTemplate {
         tpl.binding(TemplateVariable.CREATE_TIME.getVariable(), strTime);
         tpl.binding(TemplateVariable.PROJECT_NAME.getVariable(), config.getProjectName());
         tpl.binding(TemplateVariable.RPC_CONSUMER_CONFIG.getVariable(), rpcConfigConfigContent);
-        setDirectoryLanguageVariable(config, tpl);
-        setCssCDN(config, tpl);
-        FileUtil.nioWriteFile(tpl.render(), outPath + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        context.bindLanguageTitles(tpl);
+        context.bindCssCdn(tpl);
+        BeetlTemplateUtil.renderToFile(tpl, outPath + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
     }
 
     /**
@@ -121,7 +127,8 @@ public class RpcDocBuilderTemplate extends BaseDocBuilderTemplate {
      * @param outPutFileName output file
      */
     public void buildSearchJs(List<RpcApiDoc> apiDocList, ApiConfig config, String template, String outPutFileName) {
-        List<ApiErrorCode> errorCodeList = DocUtil.errorCodeDictToList(config);
+        RenderContext context = getRenderContext(config, null);
+        List<ApiErrorCode> errorCodeList = context.getErrorCodeList();
         Template tpl = BeetlTemplateUtil.getByName(template);
         // directory tree
         List<RpcApiDoc> apiDocs = new ArrayList<>();
@@ -136,7 +143,7 @@ public class RpcDocBuilderTemplate extends BaseDocBuilderTemplate {
             apiDoc1.setOrder(apiDocs.size() + 1);
             apiDocs.add(apiDoc1);
         }
-        Map<String, String> titleMap = setDirectoryLanguageVariable(config, tpl);
+        Map<String, String> titleMap = context.bindLanguageTitles(tpl);
         if (CollectionUtil.isNotEmpty(errorCodeList)) {
             RpcApiDoc apiDoc1 = new RpcApiDoc();
             apiDoc1.setOrder(apiDocs.size() + 1);
@@ -145,7 +152,7 @@ public class RpcDocBuilderTemplate extends BaseDocBuilderTemplate {
             apiDocs.add(apiDoc1);
         }
         tpl.binding(TemplateVariable.DIRECTORY_TREE.getVariable(), apiDocs);
-        FileUtil.nioWriteFile(tpl.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        BeetlTemplateUtil.renderToFile(tpl, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
     }
 
     /**
@@ -156,10 +163,9 @@ public class RpcDocBuilderTemplate extends BaseDocBuilderTemplate {
      * @param outPutFileName output file
      */
     public void buildErrorCodeDoc(ApiConfig config, String template, String outPutFileName) {
-        List<ApiErrorCode> errorCodeList = DocUtil.errorCodeDictToList(config);
         Template mapper = BeetlTemplateUtil.getByName(template);
-        mapper.binding(TemplateVariable.LIST.getVariable(), errorCodeList);
-        FileUtil.nioWriteFile(mapper.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
+        mapper.binding(TemplateVariable.LIST.getVariable(), getRenderContext(config, null).getErrorCodeList());
+        BeetlTemplateUtil.renderToFile(mapper, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + outPutFileName);
     }
 
     /**
@@ -15,24 +15,27 @@
  */
 package net.linlan.doc.builder.rpc;
 
-import net.linlan.doc.common.util.FileUtil;
 import net.linlan.doc.builder.ProjectDocConfigBuilder;
 import net.linlan.doc.factory.BuildTemplateFactory;
 import net.linlan.doc.model.ApiConfig;
 import net.linlan.doc.model.rpc.RpcApiDoc;
 import net.linlan.doc.template.IDocBuildTemplate;
 import net.linlan.doc.utils.BeetlTemplateUtil;
+import net.linlan.doc.utils.OutputSink;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.constants.DocGlobalConstants;
 import org.beetl.core.Template;
 
 import java.util.List;
+import java.util.logging.Logger;
 
 /**
  * @author yu 2020/5/17.
  */
 public class RpcHtmlBuilder {
 
+    private static final Logger log = Logger.getLogger(RpcHtmlBuilder.class.getName());
+
     private static long now = System.currentTimeMillis();
 
     private static String INDEX_HTML = "rpc-index.html";
@@ -63,11 +66,17 @@ public class RpcHtmlBuilder {
         ProjectDocConfigBuilder configBuilder = new ProjectDocConfigBuilder(config, javaProjectBuilder);
         IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(config.getFramework());
         List<RpcApiDoc> apiDocList = docBuildTemplate.getApiData(configBuilder);
-        Template indexCssTemplate = BeetlTemplateUtil.getByName(DocGlobalConstants.ALL_IN_ONE_CSS);
-        FileUtil.nioWriteFile(indexCssTemplate.render(), config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.ALL_IN_ONE_CSS_OUT);
-        builderTemplate.copyJarFile("css/" + DocGlobalConstants.FONT_STYLE, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.FONT_STYLE);
-        builderTemplate.copyJarFile("js/" + DocGlobalConstants.JQUERY, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.JQUERY);
-        builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.RPC_ALL_IN_ONE_HTML_TPL, INDEX_HTML);
-        builderTemplate.buildSearchJs(apiDocList, config, DocGlobalConstants.RPC_ALL_IN_ONE_SEARCH_TPL, SEARCH_JS);
+        long compiled = BeetlTemplateUtil.getCompileCount();
+        BeetlTemplateUtil.warmUp(DocGlobalConstants.ALL_IN_ONE_CSS, DocGlobalConstants.RPC_ALL_IN_ONE_HTML_TPL,
+                DocGlobalConstants.RPC_ALL_IN_ONE_SEARCH_TPL);
+        try (OutputSink output = RpcDocBuilderTemplate.openStaticOutput(config, "rpc-html", true)) {
+            Template indexCssTemplate = BeetlTemplateUtil.getByName(DocGlobalConstants.ALL_IN_ONE_CSS);
+            BeetlTemplateUtil.renderToFile(indexCssTemplate, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.ALL_IN_ONE_CSS_OUT);
+            builderTemplate.copyJarFile("css/" + DocGlobalConstants.FONT_STYLE, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.FONT_STYLE);
+            builderTemplate.copyJarFile("js/" + DocGlobalConstants.JQUERY, config.getOutPath() + DocGlobalConstants.FILE_SEPARATOR + DocGlobalConstants.JQUERY);
+            builderTemplate.buildAllInOne(apiDocList, config, javaProjectBuilder, DocGlobalConstants.RPC_ALL_IN_ONE_HTML_TPL, INDEX_HTML);
+            builderTemplate.buildSearchJs(apiDocList, config, DocGlobalConstants.RPC_ALL_IN_ONE_SEARCH_TPL, SEARCH_JS);
+        }
+        log.fine("Rpc html templates compiled: " + (BeetlTemplateUtil.getCompileCount() - compiled));
     }
 }
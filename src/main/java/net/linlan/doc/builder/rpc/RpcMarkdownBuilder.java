@@ -23,6 +23,7 @@ import net.linlan.doc.model.rpc.RpcApiDoc;
 import net.linlan.doc.template.IDocBuildTemplate;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import net.linlan.doc.constants.DocGlobalConstants;
+import net.linlan.doc.utils.OutputSink;
 
 import java.util.List;
 
@@ -57,13 +58,17 @@ public class RpcMarkdownBuilder {
         ProjectDocConfigBuilder configBuilder = new ProjectDocConfigBuilder(apiConfig, javaProjectBuilder);
         IDocBuildTemplate docBuildTemplate = BuildTemplateFactory.getDocBuildTemplate(apiConfig.getFramework());
         List<RpcApiDoc> apiDocList = docBuildTemplate.getApiData(configBuilder);
-        if (apiConfig.isAllInOne()) {
-            String version = apiConfig.isCoverOld() ? "" : "-V" + DateTimeUtil.long2Str(System.currentTimeMillis(), DATE_FORMAT);
-            String docName = builderTemplate.allInOneDocName(apiConfig, "rpc-all" + version, ".md");
-            builderTemplate.buildAllInOne(apiDocList, apiConfig, javaProjectBuilder, DocGlobalConstants.RPC_ALL_IN_ONE_MD_TPL, docName);
-        } else {
-            builderTemplate.buildApiDoc(apiDocList, apiConfig, DocGlobalConstants.RPC_API_DOC_MD_TPL, API_EXTENSION);
-            builderTemplate.buildErrorCodeDoc(apiConfig, DocGlobalConstants.ERROR_CODE_LIST_MD_TPL, DocGlobalConstants.ERROR_CODE_LIST_MD);
+        // versioned all in one docs of earlier runs are kept
+        boolean versioned = apiConfig.isAllInOne() && !apiConfig.isCoverOld();
+        try (OutputSink output = RpcDocBuilderTemplate.openOutput(apiConfig, "rpc-markdown", !versioned)) {
+            if (apiConfig.isAllInOne()) {
+                String version = apiConfig.isCoverOld() ? "" : "-V" + DateTimeUtil.long2Str(System.currentTimeMillis(), DATE_FORMAT);
+                String docName = builderTemplate.allInOneDocName(apiConfig, "rpc-all" + version, ".md");
+                builderTemplate.buildAllInOne(apiDocList, apiConfig, javaProjectBuilder, DocGlobalConstants.RPC_ALL_IN_ONE_MD_TPL, docName);
+            } else {
+                builderTemplate.buildApiDoc(apiDocList, apiConfig, DocGlobalConstants.RPC_API_DOC_MD_TPL, API_EXTENSION);
+                builderTemplate.buildErrorCodeDoc(apiConfig, DocGlobalConstants.ERROR_CODE_LIST_MD_TPL, DocGlobalConstants.ERROR_CODE_LIST_MD);
+            }
         }
     }
 }
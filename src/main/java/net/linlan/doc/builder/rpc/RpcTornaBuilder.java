@@ -15,11 +15,9 @@
  */
 package net.linlan.doc.builder.rpc;
 
-import com.google.gson.Gson;
 import net.linlan.doc.common.util.CollectionUtil;
 import net.linlan.doc.utils.StringUtils;
 import net.linlan.doc.builder.ProjectDocConfigBuilder;
-import net.linlan.doc.common.util.OkHttp3Util;
 import net.linlan.doc.constants.TornaConstants;
 import net.linlan.doc.factory.BuildTemplateFactory;
 import net.linlan.doc.model.ApiConfig;
@@ -30,13 +28,12 @@ import net.linlan.doc.model.torna.TornaApi;
 import net.linlan.doc.model.torna.TornaDic;
 import net.linlan.doc.template.IDocBuildTemplate;
 import net.linlan.doc.utils.DocUtil;
+import net.linlan.doc.utils.TornaPushPipeline;
 import net.linlan.doc.utils.TornaUtil;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author xingzi 2021/4/28 16:14
@@ -95,25 +92,13 @@ public class RpcTornaBuilder {
         }
         tornaApi.setCommonErrorCodes(TornaUtil.buildErrorCode(apiConfig));
         tornaApi.setApis(apisList);
-        //Build push document information
-        Map<String, String> requestJson = TornaConstants.buildParams(TornaConstants.PUSH, new Gson().toJson(tornaApi), apiConfig);
-
+        TornaPushPipeline pipeline = new TornaPushPipeline(apiConfig);
         //Push dictionary information
-        Map<String, Object> dicMap = new HashMap<>(2);
         List<TornaDic> docDicts = TornaUtil.buildTornaDic(DocUtil.buildDictionary(apiConfig, builder));
-
         if (CollectionUtil.isNotEmpty(docDicts)) {
-            dicMap.put("enums", docDicts);
-            Map<String, String> dicRequestJson = TornaConstants.buildParams(TornaConstants.ENUM_PUSH, new Gson().toJson(dicMap), apiConfig);
-            String dicResponseMsg = OkHttp3Util.syncPostJson(apiConfig.getOpenUrl(), new Gson().toJson(dicRequestJson));
-//            String dicResponseMsg = "";
-            TornaUtil.printDebugInfo(apiConfig, dicResponseMsg, dicRequestJson, TornaConstants.ENUM_PUSH);
+            pipeline.pushDictionary(docDicts);
         }
-        Map<String, String> dicRequestJson = TornaConstants.buildParams(TornaConstants.ENUM_PUSH, new Gson().toJson(dicMap), apiConfig);
-        //Get the response result
-        String responseMsg = OkHttp3Util.syncPostJson(apiConfig.getOpenUrl(), new Gson().toJson(requestJson));
-//        String responseMsg = "";
-        //Print the log of pushing documents to Torna
-        TornaUtil.printDebugInfo(apiConfig, responseMsg, requestJson, TornaConstants.PUSH);
+        //Push the document in batches and print the report
+        pipeline.push(tornaApi);
     }
 }
@@ -0,0 +1,15 @@
+package net.linlan.doc.common.exception;
+
+/**
+ * Thrown when a torna push request failed after its retries, the message
+ * tells how many of the batches were not pushed.
+ *
+ * @author yu 2026/10/17.
+ */
+public class TornaPushException extends BaseRuntimeException {
+
+    public TornaPushException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,52 @@
+package net.linlan.doc.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digests as lower case hex, used for the output manifest and the torna snapshot
+ *
+ * @author yu 2026/10/18.
+ */
+public class DigestUtil {
+
+    /**
+     * @return new SHA-256 MessageDigest
+     */
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param content content
+     * @return SHA-256 hex of the utf-8 bytes of the content
+     */
+    public static String sha256Hex(String content) {
+        return sha256Hex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param content content
+     * @return SHA-256 hex of the content
+     */
+    public static String sha256Hex(byte[] content) {
+        return toHex(sha256().digest(content));
+    }
+
+    /**
+     * @param digest digest bytes
+     * @return lower case hex string
+     */
+    public static String toHex(byte[] digest) {
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -121,9 +121,9 @@ public class FileUtil {
     public static byte[] copyToByteArray(InputStream inStream)
             throws IOException {
         ByteArrayOutputStream swapStream = new ByteArrayOutputStream();
-        byte[] buff = new byte[100];
+        byte[] buff = new byte[8192];
         int rc;
-        while ((rc = inStream.read(buff, 0, 100)) > 0) {
+        while ((rc = inStream.read(buff, 0, buff.length)) > 0) {
             swapStream.write(buff, 0, rc);
         }
         return swapStream.toByteArray();
@@ -0,0 +1,255 @@
+package net.linlan.doc.common.util;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event listener factory that times every call of an OkHttpClient: dns lookup, connect,
+ * time to the first response byte and the bytes sent and received. The totals of all calls
+ * are kept here, a request tagged with a {@link CallMetrics} also gets the numbers of its
+ * own calls, summed over retries.
+ *
+ * @author yu 2026/10/17.
+ */
+public class HttpMetrics implements EventListener.Factory {
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder connections = new LongAdder();
+
+    private final LongAdder dnsNanos = new LongAdder();
+
+    private final LongAdder connectNanos = new LongAdder();
+
+    private final LongAdder ttfbNanos = new LongAdder();
+
+    private final LongAdder bytesSent = new LongAdder();
+
+    private final LongAdder bytesReceived = new LongAdder();
+
+    @Override
+    public EventListener create(Call call) {
+        return new Listener(call.request().tag(CallMetrics.class));
+    }
+
+    /**
+     * One line for the build log
+     *
+     * @return String
+     */
+    public String summary() {
+        long count = calls.sum();
+        return count + " calls, " + failures.sum() + " failed, "
+                + connections.sum() + " new connections, "
+                + "dns " + millis(dnsNanos.sum()) + " ms, "
+                + "connect " + millis(connectNanos.sum()) + " ms, "
+                + "avg ttfb " + (count == 0 ? 0 : millis(ttfbNanos.sum()) / count) + " ms, "
+                + "sent " + size(bytesSent.sum()) + ", "
+                + "received " + size(bytesReceived.sum());
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getConnections() {
+        return connections.sum();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Byte count for a log line, in KB from 10 KB on
+     *
+     * @param bytes byte count
+     * @return String
+     */
+    public static String size(long bytes) {
+        return bytes < 10240 ? bytes + " B" : bytes / 1024 + " KB";
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Numbers of the calls of one request, attach it with
+     * {@code Request.Builder.tag(CallMetrics.class, metrics)}
+     */
+    public static class CallMetrics {
+
+        private int calls;
+
+        private long dns;
+
+        private long connect;
+
+        private long ttfb;
+
+        private long bytesSent;
+
+        private long bytesReceived;
+
+        private synchronized void add(long dnsNanos, long connectNanos, long ttfbNanos, long sent, long received) {
+            calls++;
+            dns += millis(dnsNanos);
+            connect += millis(connectNanos);
+            ttfb += millis(ttfbNanos);
+            bytesSent += sent;
+            bytesReceived += received;
+        }
+
+        public synchronized int getCalls() {
+            return calls;
+        }
+
+        /**
+         * @return dns lookup in milliseconds
+         */
+        public synchronized long getDns() {
+            return dns;
+        }
+
+        /**
+         * @return tcp and tls connect in milliseconds, 0 for a reused connection
+         */
+        public synchronized long getConnect() {
+            return connect;
+        }
+
+        /**
+         * @return time from sending the request headers to the first response byte in milliseconds
+         */
+        public synchronized long getTtfb() {
+            return ttfb;
+        }
+
+        public synchronized long getBytesSent() {
+            return bytesSent;
+        }
+
+        public synchronized long getBytesReceived() {
+            return bytesReceived;
+        }
+    }
+
+    private class Listener extends EventListener {
+
+        private final CallMetrics callMetrics;
+
+        private long dnsStart;
+
+        private long dns;
+
+        private long connectStart;
+
+        private long connect;
+
+        private long requestStart;
+
+        private long ttfb;
+
+        private long sent;
+
+        private long received;
+
+        private Listener(CallMetrics callMetrics) {
+            this.callMetrics = callMetrics;
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            dns += System.nanoTime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            connect += System.nanoTime() - connectStart;
+            connections.increment();
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                                  IOException ioe) {
+            connect += System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            if (requestStart == 0) {
+                requestStart = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            sent += byteCount;
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            if (ttfb == 0 && requestStart != 0) {
+                ttfb = System.nanoTime() - requestStart;
+            }
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            received += byteCount;
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            record();
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            failures.increment();
+            record();
+        }
+
+        private void record() {
+            calls.increment();
+            dnsNanos.add(dns);
+            connectNanos.add(connect);
+            ttfbNanos.add(ttfb);
+            bytesSent.add(sent);
+            bytesReceived.add(received);
+            if (callMetrics != null) {
+                callMetrics.add(dns, connect, ttfb, sent, received);
+            }
+        }
+    }
+}
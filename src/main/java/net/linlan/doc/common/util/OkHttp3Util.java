@@ -3,13 +3,20 @@ package net.linlan.doc.common.util;
 import net.linlan.doc.common.net.SSLSocketFactoryBuilder;
 import net.linlan.doc.common.net.TrustAnyTrustManager;
 import okhttp3.*;
+import okio.BufferedSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Http请求工具类
@@ -189,6 +196,60 @@ public class OkHttp3Util {
         doAsyncPost(url, body, headersMap, callback);
     }
 
+    /**
+     * Synchronous post request with a prepared body, e.g. a {@link #jsonBody(JsonContent, boolean)}
+     *
+     * @param url        request url
+     * @param body       OkHttp3 RequestBody
+     * @param headersMap request headers
+     * @return response body
+     */
+    public static String syncPost(String url, RequestBody body, Map<String, String> headersMap) {
+        return doSyncPost(url, body, headersMap);
+    }
+
+    /**
+     * Json request body that is written straight into the request sink while it is sent.
+     * Nothing is buffered, so a large body is never held in memory and it is simply
+     * written again when the request is retried.
+     *
+     * @param content writes the json
+     * @param gzip    gzip the body, the request then needs a Content-Encoding: gzip header
+     * @return RequestBody
+     */
+    public static RequestBody jsonBody(JsonContent content, boolean gzip) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON_TYPE;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                OutputStream out = sink.outputStream();
+                GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 8192) : null;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipOut : out, StandardCharsets.UTF_8), 8192);
+                content.writeTo(writer);
+                writer.flush();
+                if (gzipOut != null) {
+                    gzipOut.finish();
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes the json of a {@link #jsonBody(JsonContent, boolean)}
+     */
+    public interface JsonContent {
+
+        /**
+         * @param writer target of the json, flushed by the caller
+         * @throws IOException IOException
+         */
+        void writeTo(Writer writer) throws IOException;
+    }
+
     /**
      * Asynchronous get request with parameters and headers
      *
@@ -333,12 +394,20 @@ public class OkHttp3Util {
         return SingletonHolder.INSTANCE;
     }
 
-    private static class SingletonHolder {
-        private static final OkHttpClient INSTANCE = new OkHttpClient.Builder()
+    /**
+     * Builder with the settings of the default client: 10 s timeouts and the lenient ssl socket factory
+     *
+     * @return OkHttpClient.Builder
+     */
+    public static OkHttpClient.Builder newBuilder() {
+        return new OkHttpClient.Builder()
                 .connectTimeout(10000L, TimeUnit.MILLISECONDS)
                 .readTimeout(10000L, TimeUnit.MILLISECONDS)
                 .writeTimeout(10000L, TimeUnit.MILLISECONDS)
-                .sslSocketFactory(SSLSocketFactoryBuilder.getSslSocketFactory(), new TrustAnyTrustManager())
-                .build();
+                .sslSocketFactory(SSLSocketFactoryBuilder.getSslSocketFactory(), new TrustAnyTrustManager());
+    }
+
+    private static class SingletonHolder {
+        private static final OkHttpClient INSTANCE = newBuilder().build();
     }
 }
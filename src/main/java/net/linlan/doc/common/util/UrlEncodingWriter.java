@@ -0,0 +1,151 @@
+package net.linlan.doc.common.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.security.MessageDigest;
+
+/**
+ * Writer that url encodes everything written to it like {@link java.net.URLEncoder} with
+ * utf-8, without building the encoded string. The encoded characters can also be fed into
+ * a digest, e.g. to sign a request while it is written.
+ *
+ * @author yu 2026/10/17.
+ */
+public class UrlEncodingWriter extends Writer {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final Writer out;
+
+    private final MessageDigest digest;
+
+    private final char[] chars = new char[8192];
+
+    private final byte[] bytes = new byte[8192];
+
+    private int count;
+
+    private char highSurrogate;
+
+    /**
+     * @param out    target of the encoded characters
+     * @param digest digest updated with the encoded characters, may be null
+     */
+    public UrlEncodingWriter(Writer out, MessageDigest digest) {
+        this.out = out;
+        this.digest = digest;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            encode(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            encode(str.charAt(i));
+        }
+    }
+
+    /**
+     * Encode a pending unpaired surrogate and pass everything on, without flushing the target
+     *
+     * @throws IOException IOException
+     */
+    public void finish() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            encodeByte('?');
+        }
+        drain();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        finish();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private void encode(char c) throws IOException {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                encodeCodePoint(Character.toCodePoint(high, c));
+                return;
+            }
+            // an unpaired surrogate becomes '?' like String.getBytes does
+            encodeByte('?');
+        }
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '.' || c == '-' || c == '*' || c == '_') {
+            put(c);
+        } else if (c == ' ') {
+            put('+');
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            encodeByte('?');
+        } else {
+            encodeCodePoint(c);
+        }
+    }
+
+    private void encodeCodePoint(int codePoint) throws IOException {
+        if (codePoint < 0x80) {
+            encodeByte(codePoint);
+        } else if (codePoint < 0x800) {
+            encodeByte(0xC0 | (codePoint >> 6));
+            encodeByte(0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            encodeByte(0xE0 | (codePoint >> 12));
+            encodeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            encodeByte(0x80 | (codePoint & 0x3F));
+        } else {
+            encodeByte(0xF0 | (codePoint >> 18));
+            encodeByte(0x80 | ((codePoint >> 12) & 0x3F));
+            encodeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            encodeByte(0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    private void encodeByte(int b) throws IOException {
+        put('%');
+        put(HEX[(b >> 4) & 0xF]);
+        put(HEX[b & 0xF]);
+    }
+
+    private void put(char c) throws IOException {
+        if (count == chars.length) {
+            drain();
+        }
+        chars[count] = c;
+        bytes[count] = (byte) c;
+        count++;
+    }
+
+    private void drain() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        out.write(chars, 0, count);
+        if (digest != null) {
+            digest.update(bytes, 0, count);
+        }
+        count = 0;
+    }
+}
@@ -84,6 +84,10 @@ public interface DocGlobalConstants {
 
     String SINGLE_DICT_HTML_TPL = "html/dict.html";
 
+    String ALL_IN_ONE_FRAGMENT_TPL = "html/fragment.html";
+
+    String ALL_IN_ONE_FRAGMENT_DIR = "fragments";
+
     String ALL_IN_ONE_CSS = "css/AllInOne.css";
 
     String ALL_IN_ONE_CSS_OUT = "AllInOne.css";
@@ -120,6 +124,8 @@ public interface DocGlobalConstants {
 
     String OPEN_API_JSON = "/openapi.json";
 
+    String OUTPUT_MANIFEST = "doc-manifest.json";
+
     String CONTROLLER_FULLY = "org.springframework.stereotype.Controller";
 
     String REST_CONTROLLER_FULLY = "org.springframework.web.bind.annotation.RestController";
@@ -51,6 +51,11 @@ public enum TemplateVariable {
     INDEX_ALIAS("alias"),
     DIRECTORY_TREE("directoryTree"),
     HIGH_LIGHT_CSS_LINK("highlightCssLink"),
+    FRAGMENTS("fragments"),
+    API_GROUP("apiGroup"),
+    API("api"),
+    GROUP_COUNT("groupCount"),
+    SEARCH_INDEX("searchIndex"),
     CSS_CND("css_cdn");
 
     private String variable;
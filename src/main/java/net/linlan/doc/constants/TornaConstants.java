@@ -17,12 +17,15 @@ package net.linlan.doc.constants;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import net.linlan.doc.common.util.UrlEncodingWriter;
 import net.linlan.doc.model.ApiConfig;
 import net.linlan.doc.utils.StringUtils;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.net.URLEncoder;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
@@ -50,6 +53,11 @@ public class TornaConstants {
 
     public static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
+    /**
+     * Serializes the data of a torna request
+     */
+    public static final Gson PUSH_GSON = new GsonBuilder().disableHtmlEscaping().create();
+
 
     /**
      * build torna params
@@ -81,6 +89,67 @@ public class TornaConstants {
         return param;
     }
 
+    /**
+     * Write the torna params of {@link #buildParams(String, String, ApiConfig)} as json.
+     * The data is serialized, url encoded and signed while it is written, so neither the
+     * data nor the request is built as a string. The sign is written last.
+     *
+     * @param name   interface name
+     * @param data   object serialized as the data
+     * @param config ApiConfig
+     * @param writer target of the request json
+     * @throws IOException IOException
+     */
+    public static void writeParams(String name, Object data, ApiConfig config, Writer writer) throws IOException {
+        String timestamp = getTime();
+        String secret = String.valueOf(config.getSecret());
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        // the sign covers the params sorted by name: access_token, app_key, data, name, timestamp, version
+        md5.update(secret.getBytes());
+        updateSign(md5, "access_token", config.getAppToken());
+        updateSign(md5, "app_key", config.getAppKey());
+        md5.update("data".getBytes());
+        writer.write('{');
+        writeParam(writer, "name", name);
+        writeParam(writer, "app_key", config.getAppKey());
+        writeParam(writer, "timestamp", timestamp);
+        writeParam(writer, "version", "1.0");
+        writeParam(writer, "access_token", config.getAppToken());
+        writer.write("\"data\":\"");
+        UrlEncodingWriter encoder = new UrlEncodingWriter(writer, md5);
+        PUSH_GSON.toJson(data, data.getClass(), encoder);
+        encoder.finish();
+        writer.write("\",");
+        updateSign(md5, "name", name);
+        updateSign(md5, "timestamp", timestamp);
+        updateSign(md5, "version", "1.0");
+        md5.update(secret.getBytes());
+        writer.write("\"sign\":");
+        writer.write(PUSH_GSON.toJson(byte2hex(md5.digest())));
+        writer.write('}');
+    }
+
+    private static void updateSign(MessageDigest md5, String name, String value) {
+        if (value != null) {
+            md5.update((name + value).getBytes());
+        }
+    }
+
+    private static void writeParam(Writer writer, String name, String value) throws IOException {
+        if (value != null) {
+            writer.write('"');
+            writer.write(name);
+            writer.write("\":");
+            writer.write(PUSH_GSON.toJson(value));
+            writer.write(',');
+        }
+    }
+
     /**
      * 构建签名
      *
@@ -23,7 +23,9 @@ import net.linlan.doc.constants.DocTags;
 import net.linlan.doc.model.ApiConfig;
 import net.linlan.doc.model.CustomField;
 import net.linlan.doc.model.DocJavaField;
+import net.linlan.doc.model.FieldSchema;
 import net.linlan.doc.model.FormData;
+import net.linlan.doc.model.TypeSchema;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaField;
 import net.linlan.doc.utils.*;
@@ -65,9 +67,8 @@ public class FormDataBuildHelper {
         boolean requestFieldToUnderline = apiConfig.isRequestFieldToUnderline();
         boolean responseFieldToUnderline = apiConfig.isResponseFieldToUnderline();
         String simpleName = DocClassUtil.getSimpleName(className);
-        String[] globGicName = DocClassUtil.getSimpleGicName(className);
-        JavaClass cls = builder.getJavaProjectBuilder().getClassByName(simpleName);
-        List<DocJavaField> fields = JavaClassUtil.getFields(cls, 0, new LinkedHashMap<>());
+        TypeSchema schema = builder.getTypeSchemaCache().resolve(simpleName, className);
+        String[] globGicName = schema.getGenericNames();
 
         if (JavaClassValidateUtil.isPrimitive(simpleName)) {
             FormData formData = new FormData();
@@ -89,7 +90,8 @@ public class FormDataBuildHelper {
         }
         int n = 0;
         out:
-        for (DocJavaField docField : fields) {
+        for (FieldSchema fieldSchema : schema.getFields()) {
+            DocJavaField docField = fieldSchema.getDocField();
             JavaField field = docField.getJavaField();
             String fieldName = field.getName();
             String subTypeName = docField.getFullyQualifiedName();
@@ -105,7 +107,7 @@ public class FormDataBuildHelper {
             if (responseFieldToUnderline || requestFieldToUnderline) {
                 fieldName = StringUtilsExt.camelToUnderline(fieldName);
             }
-            Map<String, String> tagsMap = DocUtil.getFieldTagsValue(field, docField);
+            Map<String, String> tagsMap = fieldSchema.getTagsMap();
             if (tagsMap.containsKey(DocTags.IGNORE)) {
                 continue out;
             }
@@ -99,8 +99,7 @@ public class JsonBuildHelper {
         }
 
 
-        return JsonUtil.toPrettyFormat(buildJson(typeName, returnType, Boolean.TRUE, 0,
-                new HashMap<>(), new ArrayList<>(0), builder));
+        return buildJson(typeName, returnType, Boolean.TRUE, 0, new HashMap<>(), new ArrayList<>(0), builder);
     }
 
     /**
@@ -115,110 +114,147 @@ public class JsonBuildHelper {
      */
     public static String buildJson(String typeName, String genericCanonicalName,
                                    boolean isResp, int counter, Map<String, String> registryClasses, List<String> groupClasses, ProjectDocConfigBuilder builder) {
+        JsonExampleWriter writer = new JsonExampleWriter();
+        writeJson(writer, typeName, genericCanonicalName, isResp, counter, registryClasses, groupClasses, builder);
+        return writer.toString();
+    }
+
+    /**
+     * Write the example of a type. An object or array is written once for each type, request side,
+     * validation groups, set of already registered classes and depth; later calls copy its text.
+     * The fragments are kept on the project builder, whose api config they were written with.
+     */
+    private static void writeJson(JsonExampleWriter writer, String typeName, String genericCanonicalName,
+                                  boolean isResp, int counter, Map<String, String> registryClasses, List<String> groupClasses, ProjectDocConfigBuilder builder) {
+        String key = typeName + "|" + genericCanonicalName + "|" + isResp + "|" + counter + "|" + groupClasses
+                + "|" + new TreeSet<>(registryClasses.keySet()) + "|" + writer.getDepth();
+        Map<String, JsonFragment> fragments = builder.getJsonFragments();
+        JsonFragment fragment = fragments.get(key);
+        if (Objects.nonNull(fragment)) {
+            for (String registered : fragment.registered) {
+                registryClasses.put(registered, registered);
+            }
+            writer.fragment(fragment.json);
+            return;
+        }
+        Set<String> registered = new HashSet<>(registryClasses.keySet());
+        JsonExampleWriter.Mark mark = writer.mark();
+        if (!expandJson(writer, typeName, genericCanonicalName, isResp, counter, registryClasses, groupClasses, builder)) {
+            return;
+        }
+        List<String> added = new ArrayList<>();
+        for (String name : registryClasses.keySet()) {
+            if (!registered.contains(name)) {
+                added.add(name);
+            }
+        }
+        fragments.putIfAbsent(key, new JsonFragment(writer.since(mark), added));
+    }
+
+    /**
+     * @return true when an object or array was written
+     */
+    private static boolean expandJson(JsonExampleWriter writer, String typeName, String genericCanonicalName,
+                                      boolean isResp, int counter, Map<String, String> registryClasses, List<String> groupClasses, ProjectDocConfigBuilder builder) {
 
-        Map<String, String> genericMap = new HashMap<>(10);
         JavaClass javaClass = builder.getJavaProjectBuilder().getClassByName(typeName);
         ApiConfig apiConfig = builder.getApiConfig();
         if (counter > apiConfig.getRecursionLimit()) {
-            return "{\"$ref\":\"...\"}";
+            writer.object("$ref", "...");
+            return true;
         }
         if (registryClasses.containsKey(typeName) && counter > registryClasses.size()) {
-            return "{\"$ref\":\"...\"}";
+            writer.object("$ref", "...");
+            return true;
         }
         int nextLevel = counter + 1;
         registryClasses.put(typeName, typeName);
         if (JavaClassValidateUtil.isMvcIgnoreParams(typeName, builder.getApiConfig().getIgnoreRequestParams())) {
             if (DocGlobalConstants.MODE_AND_VIEW_FULLY.equals(typeName)) {
-                return "Forward or redirect to a page view.";
+                writer.message("Forward or redirect to a page view.");
             } else {
-                return "Error restful return.";
+                writer.message("Error restful return.");
             }
+            return false;
         }
         if (JavaClassValidateUtil.isPrimitive(typeName)) {
-            return StringUtilsExt.removeQuotes(DocUtil.jsonValueByType(typeName));
+            writer.raw(StringUtilsExt.removeQuotes(DocUtil.jsonValueByType(typeName)));
+            return false;
         }
         if (javaClass.isEnum()) {
-            return StringUtilsExt.removeQuotes(String.valueOf(JavaClassUtil.getEnumValue(javaClass, Boolean.FALSE)));
+            writer.raw(StringUtilsExt.removeQuotes(String.valueOf(JavaClassUtil.getEnumValue(javaClass, Boolean.FALSE))));
+            return false;
         }
         boolean skipTransientField = apiConfig.isSkipTransientField();
-        StringBuilder data0 = new StringBuilder();
-        JavaClass cls = builder.getClassByName(typeName);
-
-        data0.append("{");
-        String[] globGicName = DocClassUtil.getSimpleGicName(genericCanonicalName);
-        if (Objects.isNull(globGicName) || globGicName.length < 1) {
-            // obtain generics from parent class
-            JavaClass superJavaClass = cls != null ? cls.getSuperJavaClass() : null;
-            if (Objects.nonNull(superJavaClass) && !"Object".equals(superJavaClass.getSimpleName())) {
-                globGicName = DocClassUtil.getSimpleGicName(superJavaClass.getGenericFullyQualifiedName());
-            }
-        }
-        JavaClassUtil.genericParamMap(genericMap, cls, globGicName);
-        StringBuilder data = new StringBuilder();
+        TypeSchema schema = builder.getTypeSchemaCache().resolve(typeName, genericCanonicalName);
+        String[] globGicName = schema.getGenericNames();
+        Map<String, String> genericMap = schema.getGenericMap();
         if (JavaClassValidateUtil.isCollection(typeName) || JavaClassValidateUtil.isArray(typeName)) {
-            data.append("[");
+            writer.beginArray();
             if (globGicName.length == 0) {
-                data.append("{\"object\":\"any object\"}");
-                data.append("]");
-                return data.toString();
+                writer.object("object", "any object");
+                writer.endArray();
+                return true;
             }
             String gNameTemp = globGicName[0];
             String gName = JavaClassValidateUtil.isArray(gNameTemp) ? gNameTemp.substring(0, gNameTemp.indexOf("[")) : globGicName[0];
             if (DocGlobalConstants.JAVA_OBJECT_FULLY.equals(gName)) {
-                data.append("{\"waring\":\"You may use java.util.Object instead of display generics in the List\"}");
+                writer.object("waring", "You may use java.util.Object instead of display generics in the List");
             } else if (JavaClassValidateUtil.isPrimitive(gName)) {
-                data.append(DocUtil.jsonValueByType(gName)).append(",");
-                data.append(DocUtil.jsonValueByType(gName));
+                writer.raw(DocUtil.jsonValueByType(gName));
+                writer.raw(DocUtil.jsonValueByType(gName));
             } else if (gName.contains("<")) {
                 String simple = DocClassUtil.getSimpleName(gName);
-                String json = buildJson(simple, gName, isResp, nextLevel, registryClasses, groupClasses, builder);
-                data.append(json);
+                writeJson(writer, simple, gName, isResp, nextLevel, registryClasses, groupClasses, builder);
             } else if (JavaClassValidateUtil.isCollection(gName)) {
-                data.append("\"any object\"");
+                writer.value("any object");
             } else {
-                String json = buildJson(gName, gName, isResp, nextLevel, registryClasses, groupClasses, builder);
-                data.append(json);
+                writeJson(writer, gName, gName, isResp, nextLevel, registryClasses, groupClasses, builder);
             }
-            data.append("]");
-            return data.toString();
+            writer.endArray();
+            return true;
         } else if (JavaClassValidateUtil.isMap(typeName)) {
             String gNameTemp = genericCanonicalName;
             String[] getKeyValType = DocClassUtil.getMapKeyValueType(gNameTemp);
             if (getKeyValType.length == 0) {
-                data.append("{\"mapKey\":{}}");
-                return data.toString();
+                writer.beginObject().name("mapKey").beginObject().endObject().endObject();
+                return true;
             }
             if ((!DocGlobalConstants.JAVA_STRING_FULLY.equals(getKeyValType[0])) && apiConfig.isStrict()) {
                 throw new RuntimeException("Map's key can only use String for json,but you use " + getKeyValType[0]);
             }
             String gicName = gNameTemp.substring(gNameTemp.indexOf(",") + 1, gNameTemp.lastIndexOf(">"));
+            writer.beginObject();
             if (DocGlobalConstants.JAVA_OBJECT_FULLY.equals(gicName)) {
-                data.append("{").append("\"mapKey\":").append("{\"waring\":\"You may use java.util.Object for Map value; doc-generate can't be handle.\"}")
-                        .append("}");
+                writer.name("mapKey").object("waring", "You may use java.util.Object for Map value; doc-generate can't be handle.");
             } else if (JavaClassValidateUtil.isPrimitive(gicName)) {
-                data.append("{").append("\"mapKey1\":").append(DocUtil.jsonValueByType(gicName)).append(",");
-                data.append("\"mapKey2\":").append(DocUtil.jsonValueByType(gicName)).append("}");
+                writer.name("mapKey1").raw(DocUtil.jsonValueByType(gicName));
+                writer.name("mapKey2").raw(DocUtil.jsonValueByType(gicName));
             } else if (gicName.contains("<")) {
                 String simple = DocClassUtil.getSimpleName(gicName);
-                String json = buildJson(simple, gicName, isResp, nextLevel, registryClasses, groupClasses, builder);
-                data.append("{").append("\"mapKey\":").append(json).append("}");
+                writer.name("mapKey");
+                writeJson(writer, simple, gicName, isResp, nextLevel, registryClasses, groupClasses, builder);
             } else {
-                data.append("{").append("\"mapKey\":").append(buildJson(gicName, gNameTemp, isResp, counter + 1, registryClasses, groupClasses, builder)).append("}");
+                writer.name("mapKey");
+                writeJson(writer, gicName, gNameTemp, isResp, counter + 1, registryClasses, groupClasses, builder);
             }
-            return data.toString();
-        } else if (DocGlobalConstants.JAVA_OBJECT_FULLY.equals(typeName)) {
-            data.append("{\"object\":\" any object\"},");
-            // throw new RuntimeException("Please do not return java.lang.Object directly in api interface.");
+            writer.endObject();
+            return true;
         } else if (JavaClassValidateUtil.isReactor(typeName)) {
-            data.append(buildJson(globGicName[0], typeName, isResp, nextLevel, registryClasses, groupClasses, builder));
-            return data.toString();
+            writeJson(writer, globGicName[0], typeName, isResp, nextLevel, registryClasses, groupClasses, builder);
+            return false;
+        }
+        writer.beginObject();
+        if (DocGlobalConstants.JAVA_OBJECT_FULLY.equals(typeName)) {
+            writer.name("object").value(" any object");
+            // throw new RuntimeException("Please do not return java.lang.Object directly in api interface.");
         } else {
             boolean requestFieldToUnderline = builder.getApiConfig().isRequestFieldToUnderline();
             boolean responseFieldToUnderline = builder.getApiConfig().isResponseFieldToUnderline();
-            List<DocJavaField> fields = JavaClassUtil.getFields(cls, 0, new LinkedHashMap<>());
-            Map<String, String> ignoreFields = JavaClassUtil.getClassJsonIgnoreFields(cls);
+            Map<String, String> ignoreFields = schema.getIgnoreFields();
             out:
-            for (DocJavaField docField : fields) {
+            for (FieldSchema fieldSchema : schema.getFields()) {
+                DocJavaField docField = fieldSchema.getDocField();
                 JavaField field = docField.getJavaField();
                 if (field.isTransient() && skipTransientField) {
                     continue;
@@ -231,7 +267,7 @@ public class JsonBuildHelper {
                 if ((responseFieldToUnderline && isResp) || (requestFieldToUnderline && !isResp)) {
                     fieldName = StringUtilsExt.camelToUnderline(fieldName);
                 }
-                Map<String, String> tagsMap = DocUtil.getFieldTagsValue(field, docField);
+                Map<String, String> tagsMap = fieldSchema.getTagsMap();
                 if (!isResp) {
                     if (tagsMap.containsKey(DocTags.IGNORE)) {
                         continue out;
@@ -286,7 +322,7 @@ public class JsonBuildHelper {
                 if (customResponseField != null && JavaClassUtil.isTargetChildClass(typeName, customResponseField.getOwnerClassName()) && (customResponseField.isIgnore()) && isResp) {
                     continue;
                 }
-                data0.append("\"").append(fieldName).append("\":");
+                writer.name(fieldName);
                 String fieldValue = "";
                 if (tagsMap.containsKey(DocTags.MOCK) && StringUtils.isNotEmpty(tagsMap.get(DocTags.MOCK))) {
                     fieldValue = tagsMap.get(DocTags.MOCK);
@@ -298,23 +334,21 @@ public class JsonBuildHelper {
                     }
                 }
                 if (JavaClassValidateUtil.isPrimitive(subTypeName)) {
-                    int data0Length = data0.length();
                     if (StringUtils.isEmpty(fieldValue)) {
                         fieldValue = DocUtil.getValByTypeAndFieldName(typeSimpleName, field.getName());
                     }
+                    String customValue = null;
                     if (Objects.nonNull(customRequestField) && !isResp && typeName.equals(customRequestField.getOwnerClassName())) {
-                        JavaFieldUtil.buildCustomField(data0, typeSimpleName, customRequestField);
+                        customValue = JavaFieldUtil.buildCustomField(typeSimpleName, customRequestField);
                     }
                     if (Objects.nonNull(customResponseField) && isResp && typeName.equals(customResponseField.getOwnerClassName())) {
-                        JavaFieldUtil.buildCustomField(data0, typeSimpleName, customResponseField);
-                    }
-                    if (data0.length() == data0Length) {
-                        data0.append(fieldValue).append(",");
+                        customValue = JavaFieldUtil.buildCustomField(typeSimpleName, customResponseField);
                     }
+                    writer.raw(Objects.nonNull(customValue) ? customValue : fieldValue);
                 } else {
                     if (JavaClassValidateUtil.isCollection(subTypeName) || JavaClassValidateUtil.isArray(subTypeName)) {
                         if (StringUtils.isNotEmpty(fieldValue)) {
-                            data0.append(fieldValue).append(",");
+                            writer.raw(fieldValue);
                             continue out;
                         }
                         if (globGicName.length > 0 && "java.util.List".equals(fieldGicName)) {
@@ -326,49 +360,52 @@ public class JsonBuildHelper {
                         }
                         String gicName = DocClassUtil.getSimpleGicName(fieldGicName)[0];
                         if (DocGlobalConstants.JAVA_STRING_FULLY.equals(gicName)) {
-                            data0.append("[").append(DocUtil.jsonValueByType(gicName)).append("]").append(",");
+                            writer.beginArray().raw(DocUtil.jsonValueByType(gicName)).endArray();
                         } else if (DocGlobalConstants.JAVA_LIST_FULLY.equals(gicName)) {
-                            data0.append("[{\"object\":\"any object\"}],");
+                            writer.beginArray().object("object", "any object").endArray();
                         } else if (gicName.length() == 1) {
                             if (globGicName.length == 0) {
-                                data0.append("[{\"object\":\"any object\"}],");
+                                writer.beginArray().object("object", "any object").endArray();
                                 continue out;
                             }
                             String gicName1 = genericMap.get(gicName) == null ? globGicName[0] : genericMap.get(gicName);
                             if (DocGlobalConstants.JAVA_STRING_FULLY.equals(gicName1)) {
-                                data0.append("[").append(DocUtil.jsonValueByType(gicName1)).append("]").append(",");
+                                writer.beginArray().raw(DocUtil.jsonValueByType(gicName1)).endArray();
                             } else {
                                 if (!typeName.equals(gicName1)) {
-                                    data0.append("[").append(buildJson(DocClassUtil.getSimpleName(gicName1), gicName1, isResp, nextLevel, registryClasses, groupClasses, builder))
-                                            .append("]").append(",");
+                                    writer.beginArray();
+                                    writeJson(writer, DocClassUtil.getSimpleName(gicName1), gicName1, isResp, nextLevel, registryClasses, groupClasses, builder);
+                                    writer.endArray();
                                 } else {
-                                    data0.append("[{\"$ref\":\"..\"}]").append(",");
+                                    writer.beginArray().object("$ref", "..").endArray();
                                 }
                             }
                         } else {
                             if (!typeName.equals(gicName)) {
                                 if (JavaClassValidateUtil.isMap(gicName)) {
-                                    data0.append("[{\"mapKey\":{}}],");
+                                    writer.beginArray().beginObject().name("mapKey").beginObject().endObject().endObject().endArray();
                                     continue out;
                                 }
                                 JavaClass arraySubClass = builder.getJavaProjectBuilder().getClassByName(gicName);
                                 if (arraySubClass.isEnum()) {
                                     Object value = JavaClassUtil.getEnumValue(arraySubClass, Boolean.FALSE);
-                                    data0.append("[").append(value).append("],");
+                                    writer.beginArray().raw(String.valueOf(value)).endArray();
                                     continue out;
                                 }
-                                data0.append("[").append(buildJson(gicName, fieldGicName, isResp, nextLevel, registryClasses, groupClasses, builder)).append("]").append(",");
+                                writer.beginArray();
+                                writeJson(writer, gicName, fieldGicName, isResp, nextLevel, registryClasses, groupClasses, builder);
+                                writer.endArray();
                             } else {
-                                data0.append("[{\"$ref\":\"..\"}]").append(",");
+                                writer.beginArray().object("$ref", "..").endArray();
                             }
                         }
                     } else if (JavaClassValidateUtil.isMap(subTypeName)) {
                         if (StringUtils.isNotEmpty(fieldValue)) {
-                            data0.append(fieldValue).append(",");
+                            writer.raw(fieldValue);
                             continue out;
                         }
                         if (JavaClassValidateUtil.isMap(fieldGicName)) {
-                            data0.append("{").append("\"mapKey\":{}},");
+                            writer.beginObject().name("mapKey").beginObject().endObject().endObject();
                             continue out;
                         }
                         String gicName = fieldGicName.substring(fieldGicName.indexOf(",") + 1, fieldGicName.indexOf(">"));
@@ -382,69 +419,81 @@ public class JsonBuildHelper {
                                 }
                             }
                             if (DocGlobalConstants.JAVA_STRING_FULLY.equals(gicName1)) {
-                                data0.append("{").append("\"mapKey\":").append(DocUtil.jsonValueByType(gicName1)).append("},");
+                                writer.beginObject().name("mapKey").raw(DocUtil.jsonValueByType(gicName1)).endObject();
                             } else {
                                 if (!typeName.equals(gicName1)) {
-                                    data0.append("{").append("\"mapKey\":")
-                                            .append(buildJson(DocClassUtil.getSimpleName(gicName1), gicName1, isResp, nextLevel, registryClasses, groupClasses, builder)).append("},");
+                                    writer.beginObject().name("mapKey");
+                                    writeJson(writer, DocClassUtil.getSimpleName(gicName1), gicName1, isResp, nextLevel, registryClasses, groupClasses, builder);
+                                    writer.endObject();
                                 } else {
-                                    data0.append("{\"mapKey\":{}},");
+                                    writer.beginObject().name("mapKey").beginObject().endObject().endObject();
                                 }
                             }
                         } else {
-                            data0.append("{").append("\"mapKey\":").append(buildJson(gicName, fieldGicName, isResp, nextLevel, registryClasses, groupClasses, builder))
-                                    .append("},");
+                            writer.beginObject().name("mapKey");
+                            writeJson(writer, gicName, fieldGicName, isResp, nextLevel, registryClasses, groupClasses, builder);
+                            writer.endObject();
                         }
                     } else if (subTypeName.length() == 1) {
                         if (!typeName.equals(genericCanonicalName)) {
                             String gicName = genericMap.get(subTypeName) == null ? globGicName[0] : genericMap.get(subTypeName);
                             if (JavaClassValidateUtil.isPrimitive(gicName)) {
-                                data0.append(DocUtil.jsonValueByType(gicName)).append(",");
+                                writer.raw(DocUtil.jsonValueByType(gicName));
                             } else {
                                 String simple = DocClassUtil.getSimpleName(gicName);
-                                data0.append(buildJson(simple, gicName, isResp, nextLevel, registryClasses, groupClasses, builder)).append(",");
+                                writeJson(writer, simple, gicName, isResp, nextLevel, registryClasses, groupClasses, builder);
                             }
                         } else {
-                            data0.append("{\"waring\":\"You may have used non-display generics.\"},");
+                            writer.object("waring", "You may have used non-display generics.");
                         }
                     } else if (DocGlobalConstants.JAVA_OBJECT_FULLY.equals(subTypeName)) {
                         if (StringUtils.isNotEmpty(field.getComment())) {
                             // from source code
-                            data0.append("{\"object\":\"any object\"},");
+                            writer.object("object", "any object");
                         } else if (globGicName.length > 0) {
                             String gicName = genericMap.get(subTypeName) == null ? globGicName[0] : genericMap.get(subTypeName);
                             if (!typeName.equals(genericCanonicalName)) {
                                 if (JavaClassValidateUtil.isPrimitive(gicName)) {
-                                    data0.append("\"").append(buildJson(gicName, genericCanonicalName, isResp, nextLevel, registryClasses, groupClasses, builder)).append("\",");
+                                    registryClasses.put(gicName, gicName);
+                                    writer.value(StringUtilsExt.removeQuotes(DocUtil.jsonValueByType(gicName)));
                                 } else {
                                     String simpleName = DocClassUtil.getSimpleName(gicName);
-                                    data0.append(buildJson(simpleName, gicName, isResp, nextLevel, registryClasses, groupClasses, builder)).append(",");
+                                    writeJson(writer, simpleName, gicName, isResp, nextLevel, registryClasses, groupClasses, builder);
                                 }
                             } else {
-                                data0.append("{\"waring\":\"You may have used non-display generics.\"},");
+                                writer.object("waring", "You may have used non-display generics.");
                             }
                         } else {
-                            data0.append("{\"waring\":\"You may have used non-display generics.\"},");
+                            writer.object("waring", "You may have used non-display generics.");
                         }
                     } else if (typeName.equals(subTypeName)) {
-                        data0.append("{\"$ref\":\"...\"}").append(",");
+                        writer.object("$ref", "...");
                     } else {
                         javaClass = field.getType();
                         if (javaClass.isEnum()) {
                             Object value = JavaClassUtil.getEnumValue(javaClass, Boolean.FALSE);
-                            data0.append(value).append(",");
+                            writer.raw(String.valueOf(value));
                         } else {
                             fieldGicName = DocUtil.formatFieldTypeGicName(genericMap, globGicName, fieldGicName);
-                            data0.append(buildJson(subTypeName, fieldGicName, isResp, nextLevel, registryClasses, groupClasses, builder)).append(",");
+                            writeJson(writer, subTypeName, fieldGicName, isResp, nextLevel, registryClasses, groupClasses, builder);
                         }
                     }
                 }
             }
         }
-        if (data0.toString().contains(",")) {
-            data0.deleteCharAt(data0.lastIndexOf(","));
+        writer.endObject();
+        return true;
+    }
+
+    public static class JsonFragment {
+
+        private final String json;
+
+        private final List<String> registered;
+
+        JsonFragment(String json, List<String> registered) {
+            this.json = json;
+            this.registered = registered;
         }
-        data0.append("}");
-        return data0.toString();
     }
 }
@@ -40,11 +40,48 @@ import java.util.stream.Collectors;
  */
 public class ParamsBuildHelper {
 
+    /**
+     * Build the params of a class. A subtree is expanded once for each class, prefix, level,
+     * request side, validation groups and set of already registered classes; later calls get
+     * a copy renumbered for their pid. The subtrees are kept on the project builder, whose api
+     * config and custom fields they were expanded with. The direct fields of the class are marked
+     * with its name.
+     */
     public static List<ApiParam> buildParams(String className, String pre, int level, String isRequired, boolean isResp,
                                              Map<String, String> registryClasses, ProjectDocConfigBuilder projectBuilder,
                                              List<String> groupClasses, int pid, boolean jsonRequest) {
+        String key = className + "|" + pre + "|" + level + "|" + isRequired + "|" + isResp + "|" + jsonRequest
+                + "|" + groupClasses + "|" + new TreeSet<>(registryClasses.keySet());
+        Map<String, ParamsSubtree> subtrees = projectBuilder.getParamsSubtrees();
+        ParamsSubtree subtree = subtrees.get(key);
+        if (Objects.nonNull(subtree)) {
+            for (String registered : subtree.registered) {
+                registryClasses.put(registered, registered);
+            }
+            return subtree.copy(pid);
+        }
+        Set<String> registered = new HashSet<>(registryClasses.keySet());
+        List<ApiParam> paramList = expandParams(className, pre, level, isRequired, isResp, registryClasses,
+                projectBuilder, groupClasses, pid, jsonRequest);
+        for (ApiParam param : paramList) {
+            // fields of an element or value type already belong to that type
+            if (param.getPid() == pid && Objects.isNull(param.getOwnerClassName())) {
+                param.setOwnerClassName(className);
+            }
+        }
+        List<String> added = new ArrayList<>();
+        for (String name : registryClasses.keySet()) {
+            if (!registered.contains(name)) {
+                added.add(name);
+            }
+        }
+        subtrees.putIfAbsent(key, new ParamsSubtree(pid, paramList, added));
+        return paramList;
+    }
 
-        Map<String, String> genericMap = new HashMap<>(10);
+    private static List<ApiParam> expandParams(String className, String pre, int level, String isRequired, boolean isResp,
+                                               Map<String, String> registryClasses, ProjectDocConfigBuilder projectBuilder,
+                                               List<String> groupClasses, int pid, boolean jsonRequest) {
 
         if (StringUtils.isEmpty(className)) {
             throw new RuntimeException("Class name can't be null or empty.");
@@ -68,21 +105,14 @@ public class ParamsBuildHelper {
         // Registry class
         registryClasses.put(className, className);
         String simpleName = DocClassUtil.getSimpleName(className);
-        String[] globGicName = DocClassUtil.getSimpleGicName(className);
-        JavaClass cls = projectBuilder.getClassByName(simpleName);
-        if (Objects.isNull(globGicName) || globGicName.length < 1) {
-            // obtain generics from parent class
-            JavaClass superJavaClass = cls != null ? cls.getSuperJavaClass() : null;
-            if (superJavaClass != null && !"Object".equals(superJavaClass.getSimpleName())) {
-                globGicName = DocClassUtil.getSimpleGicName(superJavaClass.getGenericFullyQualifiedName());
-            }
-        }
-
-        JavaClassUtil.genericParamMap(genericMap, cls, globGicName);
-        List<DocJavaField> fields = JavaClassUtil.getFields(cls, 0, new LinkedHashMap<>());
+        TypeSchema schema = projectBuilder.getTypeSchemaCache().resolve(simpleName, className);
+        String[] globGicName = schema.getGenericNames();
+        Map<String, String> genericMap = schema.getGenericMap();
         if (JavaClassValidateUtil.isPrimitive(simpleName)) {
             String processedType = isShowJavaType ? simpleName : DocClassUtil.processTypeNameForParams(simpleName.toLowerCase());
-            paramList.addAll(primitiveReturnRespComment(processedType));
+            for (ApiParam param : primitiveReturnRespComment(processedType)) {
+                paramList.add(param.setId(pid + 1).setPid(pid));
+            }
         } else if (JavaClassValidateUtil.isCollection(simpleName) || JavaClassValidateUtil.isArray(simpleName)) {
             if (!JavaClassValidateUtil.isCollection(globGicName[0])) {
                 String gicName = globGicName[0];
@@ -111,9 +141,10 @@ public class ParamsBuildHelper {
                         registryClasses, projectBuilder, groupClasses, pid, jsonRequest));
             }
         } else {
-            Map<String, String> ignoreFields = JavaClassUtil.getClassJsonIgnoreFields(cls);
+            Map<String, String> ignoreFields = schema.getIgnoreFields();
             out:
-            for (DocJavaField docField : fields) {
+            for (FieldSchema fieldSchema : schema.getFields()) {
+                DocJavaField docField = fieldSchema.getDocField();
                 String maxLength = null;
                 JavaField field = docField.getJavaField();
                 if (field.isTransient() && skipTransientField) {
@@ -132,7 +163,7 @@ public class ParamsBuildHelper {
                 String fieldGicName = docField.getGenericCanonicalName();
                 List<JavaAnnotation> javaAnnotations = docField.getAnnotations();
 
-                Map<String, String> tagsMap = DocUtil.getFieldTagsValue(field, docField);
+                Map<String, String> tagsMap = fieldSchema.getTagsMap();
                 String since = DocGlobalConstants.DEFAULT_VERSION;//since tag value
                 if (!isResp) {
                     pre:
@@ -467,7 +498,7 @@ public class ParamsBuildHelper {
                         // handle java generic or object
                         if (DocGlobalConstants.JAVA_OBJECT_FULLY.equals(subTypeName) && StringUtils.isNotEmpty(field.getComment())) {
                             ApiParam param1 = ApiParam.of().setField(preBuilder.toString() + "any object")
-                                    .setId(paramList.size())
+                                    .setId(fieldPid + 1).setPid(fieldPid)
                                     .setMaxLength(maxLength)
                                     .setType("object").setDesc(DocGlobalConstants.ANY_OBJECT_MSG).setVersion(DocGlobalConstants.DEFAULT_VERSION);
                             paramList.add(param1);
@@ -575,4 +606,34 @@ public class ParamsBuildHelper {
         }
         return comment;
     }
+
+    /**
+     * An expanded params subtree, ids and pids are relative to the pid it was built for.
+     */
+    public static class ParamsSubtree {
+
+        private final int pid;
+
+        private final List<ApiParam> params;
+
+        private final List<String> registered;
+
+        ParamsSubtree(int pid, List<ApiParam> params, List<String> registered) {
+            this.pid = pid;
+            this.params = new ArrayList<>(params.size());
+            for (ApiParam param : params) {
+                this.params.add(param.clone());
+            }
+            this.registered = registered;
+        }
+
+        List<ApiParam> copy(int newPid) {
+            int offset = newPid - pid;
+            List<ApiParam> paramList = new ArrayList<>(params.size());
+            for (ApiParam param : params) {
+                paramList.add(param.clone().setId(param.getId() + offset).setPid(param.getPid() + offset));
+            }
+            return paramList;
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.helper;
+
+import com.thoughtworks.qdox.model.JavaClass;
+import net.linlan.doc.builder.ProjectDocConfigBuilder;
+import net.linlan.doc.model.DocJavaField;
+import net.linlan.doc.model.FieldSchema;
+import net.linlan.doc.model.TypeSchema;
+import net.linlan.doc.utils.DocClassUtil;
+import net.linlan.doc.utils.DocUtil;
+import net.linlan.doc.utils.JavaClassUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class lookups of one project. The class, generic bindings, fields and field tags of a
+ * type are looked up once for each class and generic binding, however many endpoints and
+ * nesting levels reach it. References between types are not followed here, the helpers
+ * still walk them and cut cycles with their registered classes.
+ *
+ * @author yu 2026/10/17.
+ */
+public class TypeSchemaCache {
+
+    private final Map<String, TypeSchema> schemas = new ConcurrentHashMap<>();
+
+    private final AtomicLong resolved = new AtomicLong();
+
+    private final ProjectDocConfigBuilder builder;
+
+    public TypeSchemaCache(ProjectDocConfigBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Resolve a type
+     *
+     * @param typeName    class name without generics
+     * @param genericName generic canonical name
+     * @return TypeSchema
+     */
+    public TypeSchema resolve(String typeName, String genericName) {
+        String key = typeName + "|" + genericName;
+        TypeSchema schema = schemas.get(key);
+        if (Objects.nonNull(schema)) {
+            return schema;
+        }
+        schema = build(typeName, genericName);
+        if (Objects.isNull(schema.getJavaClass())) {
+            // inner classes are found once their outer class is loaded
+            return schema;
+        }
+        resolved.incrementAndGet();
+        TypeSchema previous = schemas.putIfAbsent(key, schema);
+        return Objects.isNull(previous) ? schema : previous;
+    }
+
+    /**
+     * @return number of resolved types
+     */
+    public long getResolvedCount() {
+        return resolved.get();
+    }
+
+    private TypeSchema build(String typeName, String genericName) {
+        JavaClass cls = builder.getClassByName(typeName);
+        String[] globGicName = DocClassUtil.getSimpleGicName(genericName);
+        if (Objects.isNull(globGicName) || globGicName.length < 1) {
+            // obtain generics from parent class
+            JavaClass superJavaClass = cls != null ? cls.getSuperJavaClass() : null;
+            if (Objects.nonNull(superJavaClass) && !"Object".equals(superJavaClass.getSimpleName())) {
+                globGicName = DocClassUtil.getSimpleGicName(superJavaClass.getGenericFullyQualifiedName());
+            }
+        }
+        Map<String, String> genericMap = new HashMap<>(10);
+        JavaClassUtil.genericParamMap(genericMap, cls, globGicName);
+        List<DocJavaField> docFields = builder.getFields(cls);
+        List<FieldSchema> fields = new ArrayList<>(docFields.size());
+        for (DocJavaField docField : docFields) {
+            Map<String, String> tagsMap = DocUtil.getFieldTagsValue(docField.getJavaField(), docField);
+            fields.add(new FieldSchema(docField, Collections.unmodifiableMap(tagsMap)));
+        }
+        return new TypeSchema(typeName, genericName, cls, globGicName, Collections.unmodifiableMap(genericMap),
+                Collections.unmodifiableList(fields), Collections.unmodifiableMap(JavaClassUtil.getClassJsonIgnoreFields(cls)));
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.library;
+
+import com.thoughtworks.qdox.library.AbstractClassLibrary;
+import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.library.SourceLibrary;
+import com.thoughtworks.qdox.model.JavaSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Source library that looks up every source file in the {@link SourceParseCache}
+ * before parsing it. Files whose content changed are parsed and written back.
+ *
+ * @author yu 2026/10/17.
+ */
+public class CachedSourceLibrary extends SourceLibrary {
+
+    private final transient SourceParseCache parseCache;
+
+    /**
+     * library the model of cached sources is bound to, the parsed model uses the same
+     */
+    private ClassLibrary modelLibrary = this;
+
+    public CachedSourceLibrary(AbstractClassLibrary parent, SourceParseCache parseCache) {
+        super(parent);
+        this.parseCache = parseCache;
+    }
+
+    public void setModelLibrary(ClassLibrary modelLibrary) {
+        this.modelLibrary = modelLibrary;
+    }
+
+    @Override
+    public JavaSource addSource(File file) throws IOException {
+        String name = file.getName();
+        if (Objects.isNull(parseCache) || "package-info.java".equals(name) || "module-info.java".equals(name)) {
+            return super.addSource(file);
+        }
+        String key = parseCache.key(file, SourceParseCache.readContent(file));
+        JavaSource source = parseCache.get(key, modelLibrary);
+        if (Objects.nonNull(source)) {
+            registerJavaSource(source);
+            return source;
+        }
+        source = super.addSource(file);
+        parseCache.put(key, source);
+        return source;
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.library;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.builder.ModelBuilderFactory;
+import com.thoughtworks.qdox.builder.impl.ModelBuilder;
+import com.thoughtworks.qdox.library.*;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaModule;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.impl.DefaultDocletTagFactory;
+import com.thoughtworks.qdox.writer.ModelWriterFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URL;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Class library builder of doc-generate, it keeps the library order of QDox's
+ * default {@link SortedClassLibraryBuilder} (class names, class loaders, source
+ * folders, sources) and lets the source library use a {@link SourceParseCache}.
+ * Lazily loaded sources jars sit between the source folders and the sources.
+ * The libraries are exposed as {@link SynchronizedClassLibrary} views, so the
+ * model can be read from several threads.
+ *
+ * @author yu 2026/10/17.
+ */
+public class DocClassLibraryBuilder implements ClassLibraryBuilder {
+
+    private final ClassNameLibrary classNameLibrary;
+
+    private final ClassLoaderLibrary classLoaderLibrary;
+
+    private final SourceFolderLibrary sourceFolderLibrary;
+
+    private final SourceJarLibrary sourceJarLibrary;
+
+    private final SourceLibrary sourceLibrary;
+
+    private final SynchronizedModelBuilderFactory modelBuilderFactory;
+
+    public DocClassLibraryBuilder(SourceParseCache parseCache) {
+        classNameLibrary = new ClassNameLibrary();
+        classLoaderLibrary = new ClassLoaderLibrary(classNameLibrary);
+        sourceFolderLibrary = new SourceFolderLibrary(classLoaderLibrary);
+        sourceJarLibrary = new SourceJarLibrary(sourceFolderLibrary);
+        modelBuilderFactory = new SynchronizedModelBuilderFactory();
+        if (Objects.isNull(parseCache)) {
+            sourceLibrary = new SourceLibrary(sourceJarLibrary);
+        } else {
+            CachedSourceLibrary cachedSourceLibrary = new CachedSourceLibrary(sourceJarLibrary, parseCache);
+            cachedSourceLibrary.setModelLibrary(modelBuilderFactory.view(cachedSourceLibrary));
+            sourceLibrary = cachedSourceLibrary;
+        }
+        for (AbstractClassLibrary library : new AbstractClassLibrary[]{classNameLibrary, classLoaderLibrary,
+                sourceFolderLibrary, sourceJarLibrary, sourceLibrary}) {
+            library.setModelBuilderFactory(modelBuilderFactory);
+        }
+    }
+
+    /**
+     * Create a JavaProjectBuilder backed by this library builder,
+     * default class loaders are appended like {@link JavaProjectBuilder#JavaProjectBuilder()}
+     *
+     * @param parseCache parse cache, may be null
+     * @return JavaProjectBuilder
+     */
+    public static JavaProjectBuilder newJavaProjectBuilder(SourceParseCache parseCache) {
+        DocClassLibraryBuilder libraryBuilder = new DocClassLibraryBuilder(parseCache);
+        libraryBuilder.appendDefaultClassLoaders();
+        return new JavaProjectBuilder(libraryBuilder);
+    }
+
+    /**
+     * Register a sources jar whose entries are parsed on demand
+     *
+     * @param index index of the sources jar
+     * @return this
+     * @throws IOException IOException
+     */
+    public DocClassLibraryBuilder appendSourceJar(SourceJarIndex index) throws IOException {
+        sourceJarLibrary.addSourceJar(index);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder appendClassLoader(ClassLoader classLoader) {
+        classLoaderLibrary.addClassLoader(classLoader);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder appendDefaultClassLoaders() {
+        classLoaderLibrary.addDefaultLoader();
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder appendSourceFolder(File sourceFolder) {
+        sourceFolderLibrary.addSourceFolder(sourceFolder);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder appendSource(InputStream stream) throws IOException {
+        sourceLibrary.addSource(stream);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder appendSource(Reader reader) {
+        sourceLibrary.addSource(reader);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder appendSource(URL url) throws IOException {
+        sourceLibrary.addSource(url);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder appendSource(File file) throws IOException {
+        sourceLibrary.addSource(file);
+        return this;
+    }
+
+    @Override
+    public JavaSource addSource(InputStream stream) throws IOException {
+        return sourceLibrary.addSource(stream);
+    }
+
+    @Override
+    public JavaSource addSource(Reader reader) {
+        return sourceLibrary.addSource(reader);
+    }
+
+    @Override
+    public JavaSource addSource(URL url) throws IOException {
+        return sourceLibrary.addSource(url);
+    }
+
+    @Override
+    public JavaSource addSource(File file) throws IOException {
+        return sourceLibrary.addSource(file);
+    }
+
+    @Override
+    public JavaModule addSourceFolder(File sourceFolder) {
+        return sourceFolderLibrary.addSourceFolder(sourceFolder);
+    }
+
+    @Override
+    public ClassLibraryBuilder setDebugLexer(boolean debugLexer) {
+        classLoaderLibrary.setDebugLexer(debugLexer);
+        sourceFolderLibrary.setDebugLexer(debugLexer);
+        sourceJarLibrary.setDebugLexer(debugLexer);
+        sourceLibrary.setDebugLexer(debugLexer);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder setDebugParser(boolean debugParser) {
+        classLoaderLibrary.setDebugParser(debugParser);
+        sourceFolderLibrary.setDebugParser(debugParser);
+        sourceJarLibrary.setDebugParser(debugParser);
+        sourceLibrary.setDebugParser(debugParser);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder setEncoding(String encoding) {
+        sourceFolderLibrary.setEncoding(encoding);
+        sourceJarLibrary.setEncoding(encoding);
+        sourceLibrary.setEncoding(encoding);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder setErrorHander(ErrorHandler errorHandler) {
+        classLoaderLibrary.setErrorHandler(errorHandler);
+        sourceFolderLibrary.setErrorHandler(errorHandler);
+        sourceJarLibrary.setErrorHandler(errorHandler);
+        sourceLibrary.setErrorHandler(errorHandler);
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder setModelBuilderFactory(ModelBuilderFactory factory) {
+        modelBuilderFactory.delegate = factory;
+        return this;
+    }
+
+    @Override
+    public ClassLibraryBuilder setModelWriterFactory(ModelWriterFactory modelWriterFactory) {
+        classNameLibrary.setModelWriterFactory(modelWriterFactory);
+        classLoaderLibrary.setModelWriterFactory(modelWriterFactory);
+        sourceFolderLibrary.setModelWriterFactory(modelWriterFactory);
+        sourceJarLibrary.setModelWriterFactory(modelWriterFactory);
+        sourceLibrary.setModelWriterFactory(modelWriterFactory);
+        return this;
+    }
+
+    @Override
+    public ClassLibrary getClassLibrary() {
+        return modelBuilderFactory.view(sourceLibrary);
+    }
+
+    public SourceJarLibrary getSourceJarLibrary() {
+        return sourceJarLibrary;
+    }
+
+    /**
+     * Model builder factory that hands the synchronized view of a library to the model
+     */
+    private static class SynchronizedModelBuilderFactory implements ModelBuilderFactory {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Set<JavaClass> resolved = SynchronizedClassLibrary.newResolvedSet();
+
+        private final Map<ClassLibrary, SynchronizedClassLibrary> views = new IdentityHashMap<>();
+
+        private ModelBuilderFactory delegate;
+
+        SynchronizedClassLibrary view(ClassLibrary library) {
+            synchronized (resolved) {
+                return views.computeIfAbsent(library, k -> new SynchronizedClassLibrary(k, resolved));
+            }
+        }
+
+        @Override
+        public ModelBuilder newInstance(ClassLibrary library) {
+            SynchronizedClassLibrary view = view(library);
+            if (Objects.nonNull(delegate)) {
+                return delegate.newInstance(view);
+            }
+            return new ModelBuilder(view, new DefaultDocletTagFactory());
+        }
+    }
+}
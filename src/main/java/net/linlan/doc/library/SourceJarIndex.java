@@ -0,0 +1,144 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.library;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Logger;
+
+/**
+ * Class name to jar entry index of a sources jar. The index is kept on disk,
+ * keyed by the artifact coordinates and validated against the size and
+ * modification time of the jar.
+ *
+ * @author yu 2026/10/17.
+ */
+public class SourceJarIndex {
+
+    private static final Logger log = Logger.getLogger(SourceJarIndex.class.getName());
+
+    private static final String JAVA_SUFFIX = ".java";
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final File jar;
+
+    /**
+     * key is top level class name, value is jar entry name
+     */
+    private final Map<String, String> entries;
+
+    private SourceJarIndex(File jar, Map<String, String> entries) {
+        this.jar = jar;
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Load the index of the jar from the cache dir, the index is rebuilt
+     * when it is missing or the jar changed.
+     *
+     * @param jar         sources jar
+     * @param coordinates artifact coordinates, eg: groupId:artifactId:version
+     * @param cacheDir    index cache dir, may be null
+     * @return SourceJarIndex
+     * @throws IOException IOException
+     */
+    public static SourceJarIndex load(File jar, String coordinates, File cacheDir) throws IOException {
+        String fingerprint = jar.length() + ":" + jar.lastModified();
+        File indexFile = null;
+        if (Objects.nonNull(cacheDir)) {
+            indexFile = new File(cacheDir, coordinates.replaceAll("[^\\w.-]", "_") + INDEX_SUFFIX);
+            Map<String, String> entries = readIndex(indexFile, fingerprint);
+            if (Objects.nonNull(entries)) {
+                return new SourceJarIndex(jar, entries);
+            }
+        }
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (JarFile jarFile = new JarFile(jar)) {
+            for (Enumeration<JarEntry> it = jarFile.entries(); it.hasMoreElements(); ) {
+                String name = it.nextElement().getName();
+                if (name.endsWith(JAVA_SUFFIX) && !name.endsWith("/package-info.java")
+                        && !name.endsWith("module-info.java")) {
+                    String className = name.substring(0, name.length() - JAVA_SUFFIX.length()).replace('/', '.');
+                    entries.put(className, name);
+                }
+            }
+        }
+        if (Objects.nonNull(indexFile)) {
+            writeIndex(indexFile, fingerprint, entries);
+        }
+        return new SourceJarIndex(jar, entries);
+    }
+
+    private static Map<String, String> readIndex(File indexFile, String fingerprint) {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+            if (!fingerprint.equals(reader.readLine())) {
+                return null;
+            }
+            Map<String, String> entries = new LinkedHashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int index = line.indexOf('=');
+                if (index > 0) {
+                    entries.put(line.substring(0, index), line.substring(index + 1));
+                }
+            }
+            return entries;
+        } catch (IOException e) {
+            log.warning("Unable to read source index " + indexFile + " : " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeIndex(File indexFile, String fingerprint, Map<String, String> entries) {
+        File dir = indexFile.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            return;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(indexFile), StandardCharsets.UTF_8))) {
+            writer.write(fingerprint);
+            writer.write('\n');
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('=');
+                writer.write(entry.getValue());
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            log.warning("Unable to write source index " + indexFile + " : " + e.getMessage());
+        }
+    }
+
+    public File getJar() {
+        return jar;
+    }
+
+    public Map<String, String> getEntries() {
+        return entries;
+    }
+}
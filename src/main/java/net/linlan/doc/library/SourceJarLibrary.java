@@ -0,0 +1,132 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.library;
+
+import com.thoughtworks.qdox.library.AbstractClassLibrary;
+import com.thoughtworks.qdox.library.SourceLibrary;
+import com.thoughtworks.qdox.model.JavaClass;
+import net.linlan.doc.common.constants.Charset;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Source library for dependency sources jars. Only the {@link SourceJarIndex}
+ * of every jar is registered, a jar entry is parsed the first time one of its
+ * classes is asked for.
+ *
+ * @author yu 2026/10/17.
+ */
+public class SourceJarLibrary extends SourceLibrary {
+
+    private static final Logger log = Logger.getLogger(SourceJarLibrary.class.getName());
+
+    /**
+     * key is top level class name, value is url of the jar entry
+     */
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    private final AtomicInteger indexedCount = new AtomicInteger();
+
+    private final AtomicInteger parsedCount = new AtomicInteger();
+
+    public SourceJarLibrary(AbstractClassLibrary parent) {
+        super(parent);
+        // jar entries are read by url, which needs an explicit encoding
+        setEncoding(Charset.DEFAULT_CHARSET);
+    }
+
+    /**
+     * Register the classes of a sources jar without parsing them,
+     * classes registered first win like the classes added first to a source library.
+     *
+     * @param index index of the sources jar
+     * @throws IOException IOException
+     */
+    public void addSourceJar(SourceJarIndex index) throws IOException {
+        String jarUrl = "jar:" + index.getJar().toURI().toURL() + "!/";
+        for (Map.Entry<String, String> entry : index.getEntries().entrySet()) {
+            if (Objects.isNull(pending.putIfAbsent(entry.getKey(), jarUrl + entry.getValue()))) {
+                indexedCount.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    protected synchronized JavaClass resolveJavaClass(String name) {
+        JavaClass javaClass = super.resolveJavaClass(name);
+        if (Objects.nonNull(javaClass)) {
+            return javaClass;
+        }
+        String topLevelName = topLevelName(name);
+        if (Objects.isNull(topLevelName)) {
+            return null;
+        }
+        String url = pending.remove(topLevelName);
+        try {
+            addSource(new URL(url));
+            parsedCount.incrementAndGet();
+        } catch (IOException e) {
+            log.warning("Unable to load jar source " + url + " : " + e.getMessage());
+            return null;
+        }
+        return super.resolveJavaClass(name.replace('$', '.'));
+    }
+
+    @Override
+    protected boolean containsClassReference(String name) {
+        return super.containsClassReference(name) || Objects.nonNull(topLevelName(name));
+    }
+
+    /**
+     * Find the indexed top level class that declares the class
+     *
+     * @param name class name, nested classes may be separated by '.' or '$'
+     * @return top level class name or null
+     */
+    private String topLevelName(String name) {
+        String className = name.replace('$', '.');
+        while (true) {
+            if (pending.containsKey(className)) {
+                return className;
+            }
+            int index = className.lastIndexOf('.');
+            if (index < 0) {
+                return null;
+            }
+            className = className.substring(0, index);
+        }
+    }
+
+    /**
+     * @return count of indexed top level classes
+     */
+    public int getIndexedCount() {
+        return indexedCount.get();
+    }
+
+    /**
+     * @return count of jar entries parsed on demand
+     */
+    public int getParsedCount() {
+        return parsedCount.get();
+    }
+}
@@ -0,0 +1,445 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.library;
+
+import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.JavaType;
+import com.thoughtworks.qdox.model.expression.*;
+import com.thoughtworks.qdox.model.impl.DefaultJavaClass;
+import com.thoughtworks.qdox.type.TypeResolver;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * On-disk cache of parsed QDox sources, keyed by file path and content hash.
+ * Every entry holds one serialized {@link JavaSource}; the references to the
+ * owning class library are written as a marker and re-bound to the current
+ * library when the entry is read back, so a cached source links into the
+ * running model exactly like a freshly parsed one.
+ *
+ * @author yu 2026/10/17.
+ */
+public class SourceParseCache {
+
+    private static final Logger log = Logger.getLogger(SourceParseCache.class.getName());
+
+    /**
+     * Bump when the entry layout or the QDox version changes.
+     */
+    private static final String CACHE_VERSION = "qdox-2.0.0-v1";
+
+    private static final String ENTRY_SUFFIX = ".src";
+
+    private final File cacheDir;
+
+    private final Set<String> usedEntries = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public SourceParseCache(File cacheDir) {
+        if (Objects.isNull(cacheDir)) {
+            throw new NullPointerException("Parse cache dir can't be null.");
+        }
+        this.cacheDir = new File(cacheDir, CACHE_VERSION);
+    }
+
+    /**
+     * Build the cache key of the file from its canonical path and content.
+     *
+     * @param file    source file
+     * @param content content of the file
+     * @return key
+     */
+    public String key(File file, byte[] content) {
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (IOException e) {
+            path = file.getAbsolutePath();
+        }
+        return DigestUtils.md5Hex(path) + "-" + DigestUtils.md5Hex(content);
+    }
+
+    /**
+     * Read a cached source and bind it to the library
+     *
+     * @param key     cache key
+     * @param library library the source belongs to
+     * @return source or null when it is not cached
+     */
+    public JavaSource get(String key, ClassLibrary library) {
+        File entry = new File(cacheDir, key + ENTRY_SUFFIX);
+        if (!entry.isFile()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try (ObjectInputStream in = new LibraryBindingInputStream(
+                new BufferedInputStream(new FileInputStream(entry)), library)) {
+            JavaSource source = (JavaSource) in.readObject();
+            usedEntries.add(entry.getName());
+            hits.incrementAndGet();
+            return source;
+        } catch (Exception e) {
+            log.warning("Unable to read parse cache entry " + entry.getName() + " : " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Write a freshly parsed source to the cache. Sources that reference
+     * classes of other sources are not cacheable and are skipped.
+     *
+     * @param key    cache key
+     * @param source parsed source
+     */
+    public void put(String key, JavaSource source) {
+        if (Objects.isNull(source)) {
+            return;
+        }
+        File entry = new File(cacheDir, key + ENTRY_SUFFIX);
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            return;
+        }
+        File tmp = new File(cacheDir, key + ".tmp");
+        try (ObjectOutputStream out = new LibraryUnbindingOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)), source)) {
+            out.writeObject(source);
+        } catch (IOException e) {
+            log.fine("Skip parse cache of " + source.getURL() + " : " + e.getMessage());
+            tmp.delete();
+            return;
+        }
+        if (entry.exists()) {
+            entry.delete();
+        }
+        if (tmp.renameTo(entry)) {
+            usedEntries.add(entry.getName());
+        } else {
+            tmp.delete();
+        }
+    }
+
+    /**
+     * Delete all entries that were not used by the current run,
+     * they belong to modified or removed files.
+     *
+     * @return count of deleted entries
+     */
+    public int prune() {
+        File[] files = cacheDir.listFiles();
+        if (Objects.isNull(files)) {
+            return 0;
+        }
+        int count = 0;
+        for (File file : files) {
+            if (!usedEntries.contains(file.getName()) && file.delete()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Read the content of the file
+     *
+     * @param file file
+     * @return bytes
+     * @throws IOException IOException
+     */
+    public static byte[] readContent(File file) throws IOException {
+        return Files.readAllBytes(file.toPath());
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * Stands in for the class library inside a cache entry
+     */
+    private enum LibraryRef {
+        INSTANCE
+    }
+
+    /**
+     * Serializable form of annotation expressions, QDox's expression model is not serializable
+     */
+    private static class ExpressionRef implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Field FIELD_REF_CLASS = declaredField(FieldRef.class, "declaringClass");
+
+        private Class<?> type;
+
+        private Class<?>[] parameterTypes;
+
+        private Object[] args;
+
+        private String image;
+
+        static ExpressionRef of(AnnotationValue value) throws IOException {
+            if (value instanceof Constant) {
+                return constant((Constant) value);
+            }
+            if (value instanceof FieldRef) {
+                FieldRef fieldRef = (FieldRef) value;
+                try {
+                    return of(FieldRef.class, new Class<?>[]{String.class, JavaClass.class},
+                            fieldRef.getName(), FIELD_REF_CLASS.get(fieldRef));
+                } catch (IllegalAccessException | NullPointerException e) {
+                    throw new NotSerializableException(FieldRef.class.getName());
+                }
+            }
+            if (value instanceof BinaryOperator) {
+                BinaryOperator operator = (BinaryOperator) value;
+                return of(value.getClass(), new Class<?>[]{AnnotationValue.class, AnnotationValue.class},
+                        operator.getLeft(), operator.getRight());
+            }
+            if (value instanceof UnaryOperator) {
+                return of(value.getClass(), new Class<?>[]{AnnotationValue.class}, ((UnaryOperator) value).getValue());
+            }
+            if (value instanceof ParenExpression) {
+                return of(value.getClass(), new Class<?>[]{AnnotationValue.class}, ((ParenExpression) value).getValue());
+            }
+            if (value instanceof Cast) {
+                Cast cast = (Cast) value;
+                return of(value.getClass(), new Class<?>[]{JavaType.class, AnnotationValue.class},
+                        cast.getType(), cast.getValue());
+            }
+            if (value instanceof Query) {
+                Query query = (Query) value;
+                return of(value.getClass(), new Class<?>[]{AnnotationValue.class, AnnotationValue.class, AnnotationValue.class},
+                        query.getCondition(), query.getTrueExpression(), query.getFalseExpression());
+            }
+            if (value instanceof MethodInvocation) {
+                MethodInvocation invocation = (MethodInvocation) value;
+                return of(value.getClass(), new Class<?>[]{String.class, List.class},
+                        invocation.getMethodName(), new ArrayList<>(invocation.getArguments()));
+            }
+            if (value instanceof TypeRef) {
+                return of(value.getClass(), new Class<?>[]{JavaType.class}, ((TypeRef) value).getType());
+            }
+            if (value instanceof AnnotationValueList) {
+                return of(value.getClass(), new Class<?>[]{List.class},
+                        new ArrayList<>(((AnnotationValueList) value).getValueList()));
+            }
+            throw new NotSerializableException(value.getClass().getName());
+        }
+
+        private static ExpressionRef of(Class<?> type, Class<?>[] parameterTypes, Object... args) {
+            ExpressionRef ref = new ExpressionRef();
+            ref.type = type;
+            ref.parameterTypes = parameterTypes;
+            ref.args = args;
+            return ref;
+        }
+
+        private static ExpressionRef constant(Constant constant) throws IOException {
+            Object value = constant.getValue();
+            ExpressionRef ref = new ExpressionRef();
+            ref.type = Constant.class;
+            ref.image = constant.getImage();
+            if (value instanceof String) {
+                ref.parameterTypes = new Class<?>[]{String.class};
+            } else if (value instanceof Boolean) {
+                ref.parameterTypes = new Class<?>[]{Boolean.class};
+            } else if (value instanceof Character) {
+                ref.parameterTypes = new Class<?>[]{Character.class};
+            } else if (value instanceof Float || value instanceof Double) {
+                ref.parameterTypes = new Class<?>[]{Double.class};
+            } else if (value instanceof Number) {
+                ref.parameterTypes = new Class<?>[]{Long.class};
+            } else {
+                throw new NotSerializableException(constant.getClass().getName());
+            }
+            return ref;
+        }
+
+        AnnotationValue toExpression(ClassLibrary library) throws ReflectiveOperationException {
+            if (type == Constant.class) {
+                Class<?> kind = parameterTypes[0];
+                if (kind == String.class) {
+                    return Constant.newStringLiteral(image);
+                } else if (kind == Boolean.class) {
+                    return Constant.newBooleanLiteral(image);
+                } else if (kind == Character.class) {
+                    return Constant.newCharacterLiteral(image);
+                } else if (kind == Double.class) {
+                    return Constant.newFloatingPointLiteral(image);
+                }
+                return Constant.newIntegerLiteral(image);
+            }
+            if (type == FieldRef.class) {
+                FieldRef fieldRef = new FieldRef((String) args[0]);
+                fieldRef.setDeclaringClass((JavaClass) args[1]);
+                fieldRef.setClassLibrary(library);
+                return fieldRef;
+            }
+            return (AnnotationValue) type.getConstructor(parameterTypes).newInstance(args);
+        }
+    }
+
+    /**
+     * Serializable form of QDox's {@link TypeResolver}, which is not serializable itself
+     */
+    private static class TypeResolverRef implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Field PACKAGE = declaredField(TypeResolver.class, "pckg");
+
+        private static final Field DECLARING_CLASS = declaredField(TypeResolver.class, "declaringClass");
+
+        private static final Field IMPORTS = declaredField(TypeResolver.class, "imports");
+
+        private String pckg;
+
+        private String declaringClass;
+
+        private Collection<String> imports;
+
+        @SuppressWarnings("unchecked")
+        static TypeResolverRef of(TypeResolver resolver) throws IOException {
+            TypeResolverRef ref = new TypeResolverRef();
+            try {
+                ref.pckg = (String) PACKAGE.get(resolver);
+                ref.declaringClass = (String) DECLARING_CLASS.get(resolver);
+                ref.imports = (Collection<String>) IMPORTS.get(resolver);
+            } catch (IllegalAccessException | NullPointerException e) {
+                throw new NotSerializableException(TypeResolver.class.getName());
+            }
+            return ref;
+        }
+
+        TypeResolver toResolver(ClassLibrary library) {
+            if (Objects.nonNull(declaringClass)) {
+                return TypeResolver.byClassName(declaringClass, library, imports);
+            }
+            return TypeResolver.byPackageName(pckg, library, imports);
+        }
+    }
+
+    /**
+     * Private state of QDox classes that has no accessor
+     *
+     * @param type class
+     * @param name field name
+     * @return accessible field or null
+     */
+    private static Field declaredField(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static class LibraryUnbindingOutputStream extends ObjectOutputStream {
+
+        private final JavaSource root;
+
+        LibraryUnbindingOutputStream(OutputStream out, JavaSource root) throws IOException {
+            super(out);
+            this.root = root;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) throws IOException {
+            if (obj instanceof ClassLibrary) {
+                return LibraryRef.INSTANCE;
+            }
+            if (obj instanceof TypeResolver) {
+                return TypeResolverRef.of((TypeResolver) obj);
+            }
+            if (obj instanceof AnnotationValue && !(obj instanceof Serializable)) {
+                return ExpressionRef.of((AnnotationValue) obj);
+            }
+            if (obj instanceof JavaSource && obj != root) {
+                throw new NotSerializableException("source refers to " + ((JavaSource) obj).getURL());
+            }
+            if (obj instanceof DefaultJavaClass && ((DefaultJavaClass) obj).getSource() != root) {
+                throw new NotSerializableException("source refers to class " + ((DefaultJavaClass) obj).getFullyQualifiedName());
+            }
+            return obj;
+        }
+    }
+
+    private static class LibraryBindingInputStream extends ObjectInputStream {
+
+        private final ClassLibrary library;
+
+        LibraryBindingInputStream(InputStream in, ClassLibrary library) throws IOException {
+            super(in);
+            this.library = library;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) throws IOException {
+            if (obj == LibraryRef.INSTANCE) {
+                return library;
+            }
+            if (obj instanceof TypeResolverRef) {
+                return ((TypeResolverRef) obj).toResolver(library);
+            }
+            if (obj instanceof ExpressionRef) {
+                try {
+                    return ((ExpressionRef) obj).toExpression(library);
+                } catch (ReflectiveOperationException e) {
+                    throw new InvalidObjectException(e.getMessage());
+                }
+            }
+            return obj;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, SourceParseCache.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.library;
+
+import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.model.*;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * View of a QDox class library that can be used from several threads. QDox resolves
+ * classes, type names and tag parameters lazily and keeps them in plain maps, so every
+ * lookup goes through one lock shared by all libraries of a {@link DocClassLibraryBuilder},
+ * and a class is only handed out after the lazy parts of its declaration are resolved.
+ * The model objects built by the libraries refer to this view instead of the library,
+ * which puts the lookups QDox does internally behind the same lock.
+ *
+ * @author yu 2026/10/17.
+ */
+public class SynchronizedClassLibrary implements ClassLibrary {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ClassLibrary library;
+
+    /**
+     * classes whose declaration is resolved, shared by all views and used as the lock
+     */
+    private final Set<JavaClass> resolved;
+
+    SynchronizedClassLibrary(ClassLibrary library, Set<JavaClass> resolved) {
+        this.library = library;
+        this.resolved = resolved;
+    }
+
+    /**
+     * Create the shared state of the views of one library builder
+     *
+     * @return set used as lock
+     */
+    static Set<JavaClass> newResolvedSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    @Override
+    public boolean hasClassReference(String name) {
+        synchronized (resolved) {
+            return library.hasClassReference(name);
+        }
+    }
+
+    @Override
+    public JavaClass getJavaClass(String name) {
+        synchronized (resolved) {
+            return resolve(library.getJavaClass(name));
+        }
+    }
+
+    @Override
+    public JavaClass getJavaClass(String name, boolean createStub) {
+        synchronized (resolved) {
+            return resolve(library.getJavaClass(name, createStub));
+        }
+    }
+
+    @Override
+    public Collection<JavaClass> getJavaClasses() {
+        synchronized (resolved) {
+            Collection<JavaClass> classes = library.getJavaClasses();
+            for (JavaClass cls : classes) {
+                resolve(cls);
+            }
+            return classes;
+        }
+    }
+
+    @Override
+    public Collection<JavaSource> getJavaSources() {
+        synchronized (resolved) {
+            return library.getJavaSources();
+        }
+    }
+
+    @Override
+    public JavaPackage getJavaPackage(String name) {
+        synchronized (resolved) {
+            return library.getJavaPackage(name);
+        }
+    }
+
+    @Override
+    public Collection<JavaPackage> getJavaPackages() {
+        synchronized (resolved) {
+            return library.getJavaPackages();
+        }
+    }
+
+    @Override
+    public Collection<JavaModule> getJavaModules() {
+        synchronized (resolved) {
+            return library.getJavaModules();
+        }
+    }
+
+    /**
+     * Touch the lazily resolved parts of a class declaration (type names, tag parameters,
+     * annotations), the classes it refers to are resolved when they are looked up.
+     * Called with the lock held.
+     *
+     * @param cls class, may be null
+     * @return the class
+     */
+    private JavaClass resolve(JavaClass cls) {
+        if (cls == null || !resolved.add(cls)) {
+            return cls;
+        }
+        resolveTags(cls.getTags());
+        resolveAnnotations(cls.getAnnotations());
+        cls.getSuperJavaClass();
+        cls.getInterfaces();
+        for (JavaField field : cls.getFields()) {
+            field.getType().getGenericCanonicalName();
+            resolveTags(field.getTags());
+            resolveAnnotations(field.getAnnotations());
+        }
+        for (JavaMethod method : cls.getMethods()) {
+            method.getReturnType().getGenericCanonicalName();
+            resolveTags(method.getTags());
+            resolveAnnotations(method.getAnnotations());
+            for (JavaParameter parameter : method.getParameters()) {
+                parameter.getType().getGenericCanonicalName();
+                resolveAnnotations(parameter.getAnnotations());
+            }
+        }
+        for (JavaClass nested : cls.getNestedClasses()) {
+            resolve(nested);
+        }
+        return cls;
+    }
+
+    private static void resolveTags(List<DocletTag> tags) {
+        for (DocletTag tag : tags) {
+            tag.getParameters();
+            tag.getNamedParameterMap();
+        }
+    }
+
+    private static void resolveAnnotations(List<JavaAnnotation> annotations) {
+        for (JavaAnnotation annotation : annotations) {
+            annotation.getType().getFullyQualifiedName();
+            annotation.getNamedParameterMap();
+        }
+    }
+}
@@ -372,6 +372,121 @@ public class ApiConfig {
      */
     private boolean responseParamsTable = Boolean.TRUE;
 
+    /**
+     * number of threads used to build controller apis and render their pages, 0 or 1 builds them one by one
+     * @since 2.3.12
+     */
+    private int parallelism;
+
+    /**
+     * keep a doc-manifest.json in the out path, unchanged files are not rewritten
+     * and files of removed apis are deleted
+     * @since 2.3.12
+     */
+    private boolean outputManifest = Boolean.TRUE;
+
+    /**
+     * split the all in one html into a shell page and one script fragment per controller,
+     * fragments are loaded when the user navigates to them. The debug page is not split.
+     * @since 2.3.12
+     */
+    private boolean allInOneFragments;
+
+    /**
+     * write a .gz sibling next to every html, js, css and json file of the html, openapi and
+     * postman builders, for servers that serve precompressed files. Only files that changed
+     * since the last run are compressed again, so it needs the output manifest.
+     * @since 2.3.12
+     */
+    private boolean gzipOutput;
+
+    /**
+     * compression level of the .gz files, 1 (fastest) to 9 (smallest) or -1 for the jdk default
+     * @since 2.3.12
+     */
+    private int gzipLevel = 9;
+
+    /**
+     * max number of apis per torna push request, a controller folder is never split.
+     * 0 pushes everything in one request
+     * @since 2.3.12
+     */
+    private int tornaBatchSize = 200;
+
+    /**
+     * number of torna push requests sent at the same time
+     * @since 2.3.12
+     */
+    private int tornaPushThreads = 4;
+
+    /**
+     * gzip the torna push request body, the torna server must accept Content-Encoding: gzip
+     * @since 2.3.12
+     */
+    private boolean tornaGzip;
+
+    /**
+     * retries of a torna push request after a connect error, a timeout or a 5xx response
+     * @since 2.3.12
+     */
+    private int tornaMaxRetries = 3;
+
+    /**
+     * wait before the first retry in milliseconds, doubled for every further retry
+     * @since 2.3.12
+     */
+    private long tornaRetryBackoff = 1000L;
+
+    /**
+     * file that keeps a hash of every api pushed to torna. When set only added or changed
+     * apis are pushed, relative paths are resolved against the project directory by the plugin
+     * @since 2.3.12
+     */
+    private String tornaSnapshot;
+
+    /**
+     * push every api even if it did not change since the last push and rewrite the torna snapshot
+     * @since 2.3.12
+     */
+    private boolean tornaFullSync;
+
+    /**
+     * connect timeout of the http client used for torna in milliseconds
+     * @since 2.3.12
+     */
+    private long httpConnectTimeout = 10000L;
+
+    /**
+     * read timeout of the http client used for torna in milliseconds
+     * @since 2.3.12
+     */
+    private long httpReadTimeout = 10000L;
+
+    /**
+     * write timeout of the http client used for torna in milliseconds
+     * @since 2.3.12
+     */
+    private long httpWriteTimeout = 10000L;
+
+    /**
+     * idle connections kept open by the http client
+     * @since 2.3.12
+     */
+    private int httpMaxIdleConnections = 5;
+
+    /**
+     * how long an idle connection is kept open in milliseconds
+     * @since 2.3.12
+     */
+    private long httpKeepAlive = 300000L;
+
+    /**
+     * http protocol: http2 (default, negotiated over https), http1, or h2c for http/2 without tls
+     * to a server that supports it
+     * @since 2.3.12
+     */
+    private String httpProtocol;
+
 
     public String getPathPrefix() {
         return pathPrefix;
@@ -900,6 +1015,14 @@ public class ApiConfig {
         this.responseParamsTable = responseParamsTable;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     public String getHighlightStyleLink() {
         return highlightStyleLink;
     }
@@ -907,4 +1030,140 @@ public class ApiConfig {
     public void setHighlightStyleLink(String highlightStyleLink) {
         this.highlightStyleLink = highlightStyleLink;
     }
+
+    public boolean isOutputManifest() {
+        return outputManifest;
+    }
+
+    public void setOutputManifest(boolean outputManifest) {
+        this.outputManifest = outputManifest;
+    }
+
+    public boolean isAllInOneFragments() {
+        return allInOneFragments;
+    }
+
+    public void setAllInOneFragments(boolean allInOneFragments) {
+        this.allInOneFragments = allInOneFragments;
+    }
+
+    public boolean isGzipOutput() {
+        return gzipOutput;
+    }
+
+    public void setGzipOutput(boolean gzipOutput) {
+        this.gzipOutput = gzipOutput;
+    }
+
+    public int getGzipLevel() {
+        return gzipLevel;
+    }
+
+    public void setGzipLevel(int gzipLevel) {
+        this.gzipLevel = gzipLevel;
+    }
+
+    public int getTornaBatchSize() {
+        return tornaBatchSize;
+    }
+
+    public void setTornaBatchSize(int tornaBatchSize) {
+        this.tornaBatchSize = tornaBatchSize;
+    }
+
+    public int getTornaPushThreads() {
+        return tornaPushThreads;
+    }
+
+    public void setTornaPushThreads(int tornaPushThreads) {
+        this.tornaPushThreads = tornaPushThreads;
+    }
+
+    public boolean isTornaGzip() {
+        return tornaGzip;
+    }
+
+    public void setTornaGzip(boolean tornaGzip) {
+        this.tornaGzip = tornaGzip;
+    }
+
+    public int getTornaMaxRetries() {
+        return tornaMaxRetries;
+    }
+
+    public void setTornaMaxRetries(int tornaMaxRetries) {
+        this.tornaMaxRetries = tornaMaxRetries;
+    }
+
+    public long getTornaRetryBackoff() {
+        return tornaRetryBackoff;
+    }
+
+    public void setTornaRetryBackoff(long tornaRetryBackoff) {
+        this.tornaRetryBackoff = tornaRetryBackoff;
+    }
+
+    public String getTornaSnapshot() {
+        return tornaSnapshot;
+    }
+
+    public void setTornaSnapshot(String tornaSnapshot) {
+        this.tornaSnapshot = tornaSnapshot;
+    }
+
+    public boolean isTornaFullSync() {
+        return tornaFullSync;
+    }
+
+    public void setTornaFullSync(boolean tornaFullSync) {
+        this.tornaFullSync = tornaFullSync;
+    }
+
+    public long getHttpConnectTimeout() {
+        return httpConnectTimeout;
+    }
+
+    public void setHttpConnectTimeout(long httpConnectTimeout) {
+        this.httpConnectTimeout = httpConnectTimeout;
+    }
+
+    public long getHttpReadTimeout() {
+        return httpReadTimeout;
+    }
+
+    public void setHttpReadTimeout(long httpReadTimeout) {
+        this.httpReadTimeout = httpReadTimeout;
+    }
+
+    public long getHttpWriteTimeout() {
+        return httpWriteTimeout;
+    }
+
+    public void setHttpWriteTimeout(long httpWriteTimeout) {
+        this.httpWriteTimeout = httpWriteTimeout;
+    }
+
+    public int getHttpMaxIdleConnections() {
+        return httpMaxIdleConnections;
+    }
+
+    public void setHttpMaxIdleConnections(int httpMaxIdleConnections) {
+        this.httpMaxIdleConnections = httpMaxIdleConnections;
+    }
+
+    public long getHttpKeepAlive() {
+        return httpKeepAlive;
+    }
+
+    public void setHttpKeepAlive(long httpKeepAlive) {
+        this.httpKeepAlive = httpKeepAlive;
+    }
+
+    public String getHttpProtocol() {
+        return httpProtocol;
+    }
+
+    public void setHttpProtocol(String httpProtocol) {
+        this.httpProtocol = httpProtocol;
+    }
 }
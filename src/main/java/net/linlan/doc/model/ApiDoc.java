@@ -220,6 +220,37 @@ public class ApiDoc implements Comparable<ApiDoc> {
     }
 
 
+    /**
+     * Copy the controller level fields of an api doc. Method docs are shared,
+     * only the lists holding them are copied, so that group handling can reorder
+     * and filter the copy without touching the source.
+     *
+     * @param source ApiDoc
+     * @return ApiDoc
+     */
+    public static ApiDoc copyOf(ApiDoc source) {
+        ApiDoc apiDoc = new ApiDoc();
+        apiDoc.setOrder(source.getOrder());
+        apiDoc.setName(source.getName());
+        apiDoc.setAlias(source.getAlias());
+        apiDoc.setTags(source.getTags());
+        apiDoc.setGroup(source.getGroup());
+        apiDoc.setPackageName(source.getPackageName());
+        apiDoc.setList(source.getList() == null ? null : new ArrayList<>(source.getList()));
+        apiDoc.setDesc(source.getDesc());
+        apiDoc.setLink(source.getLink());
+        apiDoc.setAuthor(source.getAuthor());
+        apiDoc.setFolder(source.isFolder());
+        List<ApiDoc> children = new ArrayList<>();
+        if (source.getChildrenApiDocs() != null) {
+            for (ApiDoc child : source.getChildrenApiDocs()) {
+                children.add(copyOf(child));
+            }
+        }
+        apiDoc.setChildrenApiDocs(children);
+        return apiDoc;
+    }
+
     public static ApiDoc buildGroupApiDoc(String group) {
         ApiDoc apiDoc = new ApiDoc();
         apiDoc.setFolder(true);
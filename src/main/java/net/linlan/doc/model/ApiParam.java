@@ -24,12 +24,13 @@ package net.linlan.doc.model;
 
 import net.linlan.doc.model.torna.EnumInfo;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * @author yu 2019/9/27.
  */
-public class ApiParam {
+public class ApiParam implements Cloneable {
 
     /**
      * field id
@@ -110,6 +111,12 @@ public class ApiParam {
      */
     private boolean configParam;
 
+    /**
+     * generic name of the class the field belongs to, e.g. {@code com.acme.Page<com.acme.User>}
+     * @since 2.3.12
+     */
+    private String ownerClassName;
+
     public static ApiParam of() {
         return new ApiParam();
     }
@@ -258,6 +265,15 @@ public class ApiParam {
         return this;
     }
 
+    public String getOwnerClassName() {
+        return ownerClassName;
+    }
+
+    public ApiParam setOwnerClassName(String ownerClassName) {
+        this.ownerClassName = ownerClassName;
+        return this;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("{");
@@ -284,4 +300,23 @@ public class ApiParam {
         sb.append('}');
         return sb.toString();
     }
+
+    @Override
+    public ApiParam clone() {
+        try {
+            ApiParam param = (ApiParam) super.clone();
+            if (children != null) {
+                param.children = new ArrayList<>(children);
+            }
+            if (enumValues != null) {
+                param.enumValues = new ArrayList<>(enumValues);
+            }
+            if (enumInfo != null) {
+                param.enumInfo = new ArrayList<>(enumInfo);
+            }
+            return param;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException("clone apiParam is error", e);
+        }
+    }
 }
@@ -84,15 +84,37 @@ public class DocJavaField {
 
     private boolean isEnum;
 
+    /**
+     * shared through the fields cache, setters are rejected
+     */
+    private boolean frozen;
+
     public static DocJavaField builder() {
         return new DocJavaField();
     }
 
+    /**
+     * Make this field read only
+     *
+     * @return DocJavaField
+     */
+    public DocJavaField freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    private void checkFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("DocJavaField " + fieldName + " is read only");
+        }
+    }
+
     public JavaField getJavaField() {
         return javaField;
     }
 
     public DocJavaField setJavaField(JavaField javaField) {
+        checkFrozen();
         this.javaField = javaField;
         return this;
     }
@@ -102,6 +124,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setComment(String comment) {
+        checkFrozen();
         Comment = comment;
         return this;
     }
@@ -111,6 +134,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setFullyQualifiedName(String fullyQualifiedName) {
+        checkFrozen();
         this.fullyQualifiedName = fullyQualifiedName;
         return this;
     }
@@ -120,6 +144,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setGenericCanonicalName(String genericCanonicalName) {
+        checkFrozen();
         this.genericCanonicalName = genericCanonicalName;
         return this;
     }
@@ -129,6 +154,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setActualJavaType(String actualJavaType) {
+        checkFrozen();
         this.actualJavaType = actualJavaType;
         return this;
     }
@@ -141,6 +167,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setDocletTags(List<DocletTag> docletTags) {
+        checkFrozen();
         this.docletTags = docletTags;
         return this;
     }
@@ -157,6 +184,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setAnnotations(List<JavaAnnotation> annotations) {
+        checkFrozen();
         this.annotations = annotations;
         return this;
     }
@@ -166,6 +194,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setArray(boolean array) {
+        checkFrozen();
         this.array = array;
         return this;
     }
@@ -175,6 +204,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setPrimitive(boolean primitive) {
+        checkFrozen();
         this.primitive = primitive;
         return this;
     }
@@ -184,6 +214,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setCollection(boolean collection) {
+        checkFrozen();
         this.collection = collection;
         return this;
     }
@@ -193,6 +224,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setFile(boolean file) {
+        checkFrozen();
         this.file = file;
         return this;
     }
@@ -202,6 +234,7 @@ public class DocJavaField {
     }
 
     public void setEnum(boolean anEnum) {
+        checkFrozen();
         isEnum = anEnum;
     }
 
@@ -210,6 +243,7 @@ public class DocJavaField {
     }
 
     public DocJavaField setFieldName(String fieldName) {
+        checkFrozen();
         this.fieldName = fieldName;
         return this;
     }
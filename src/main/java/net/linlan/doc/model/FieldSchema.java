@@ -0,0 +1,49 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.model;
+
+import java.util.Map;
+
+/**
+ * Field of a {@link TypeSchema}
+ *
+ * @author yu 2026/10/17.
+ */
+public class FieldSchema {
+
+    /**
+     * field info
+     */
+    private final DocJavaField docField;
+
+    /**
+     * doc tags of the field
+     */
+    private final Map<String, String> tagsMap;
+
+    public FieldSchema(DocJavaField docField, Map<String, String> tagsMap) {
+        this.docField = docField;
+        this.tagsMap = tagsMap;
+    }
+
+    public DocJavaField getDocField() {
+        return docField;
+    }
+
+    public Map<String, String> getTagsMap() {
+        return tagsMap;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.model;
+
+import com.thoughtworks.qdox.model.JavaClass;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A type resolved once per project: its class, generic arguments and fields.
+ * Params tables, json examples and form data are all built from it.
+ *
+ * @author yu 2026/10/17.
+ */
+public class TypeSchema {
+
+    /**
+     * class name without generics
+     */
+    private final String typeName;
+
+    /**
+     * generic canonical name the generics were taken from
+     */
+    private final String genericName;
+
+    /**
+     * class, null when not found
+     */
+    private final JavaClass javaClass;
+
+    /**
+     * generic argument names, taken from the super class when the type has none
+     */
+    private final String[] genericNames;
+
+    /**
+     * type variable to argument name
+     */
+    private final Map<String, String> genericMap;
+
+    /**
+     * fields in declaration order
+     */
+    private final List<FieldSchema> fields;
+
+    /**
+     * fields ignored by class level json annotations
+     */
+    private final Map<String, String> ignoreFields;
+
+    public TypeSchema(String typeName, String genericName, JavaClass javaClass, String[] genericNames,
+                      Map<String, String> genericMap, List<FieldSchema> fields, Map<String, String> ignoreFields) {
+        this.typeName = typeName;
+        this.genericName = genericName;
+        this.javaClass = javaClass;
+        this.genericNames = genericNames;
+        this.genericMap = genericMap;
+        this.fields = fields;
+        this.ignoreFields = ignoreFields;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public String getGenericName() {
+        return genericName;
+    }
+
+    public JavaClass getJavaClass() {
+        return javaClass;
+    }
+
+    /**
+     * @return copy of the generic argument names
+     */
+    public String[] getGenericNames() {
+        return genericNames.clone();
+    }
+
+    public Map<String, String> getGenericMap() {
+        return genericMap;
+    }
+
+    public List<FieldSchema> getFields() {
+        return fields;
+    }
+
+    public Map<String, String> getIgnoreFields() {
+        return ignoreFields;
+    }
+}
@@ -43,6 +43,11 @@ public class Apis {
     private String requestArrayType;
     private Integer isResponseArray;
     private String responseArrayType;
+    /**
+     * method id of the api, only used for the torna snapshot and not pushed
+     * @since 2.3.12
+     */
+    private transient String methodId;
 
     public Integer getIsRequestArray() {
         return isRequestArray;
@@ -220,4 +225,12 @@ public class Apis {
     public void setDubboInfo(DubboInfo dubboInfo) {
         this.dubboInfo = dubboInfo;
     }
+
+    public String getMethodId() {
+        return methodId;
+    }
+
+    public void setMethodId(String methodId) {
+        this.methodId = methodId;
+    }
 }
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.model.torna;
+
+import net.linlan.doc.common.util.HttpMetrics;
+
+import java.util.List;
+
+/**
+ * Result of one torna push request
+ *
+ * @author yu 2026/10/17.
+ */
+public class TornaPushResult {
+
+    /**
+     * 1-based index of the batch
+     */
+    private int index;
+
+    /**
+     * torna open api name, doc.push or enum.batch.push
+     */
+    private String category;
+
+    /**
+     * names of the folders pushed by the batch
+     */
+    private List<String> folders;
+
+    /**
+     * number of apis in the batch
+     */
+    private int apiCount;
+
+    /**
+     * number of requests sent, 0 when the batch was skipped
+     */
+    private int attempts;
+
+    /**
+     * time spent on the batch including retries in milliseconds
+     */
+    private long elapsed;
+
+    private boolean success;
+
+    /**
+     * torna response code, or the http status when torna did not answer
+     */
+    private String code;
+
+    private String message;
+
+    /**
+     * dns, connect, time to first byte and bytes of the requests of the batch
+     */
+    private HttpMetrics.CallMetrics http;
+
+    public int getIndex() {
+        return index;
+    }
+
+    public TornaPushResult setIndex(int index) {
+        this.index = index;
+        return this;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public TornaPushResult setCategory(String category) {
+        this.category = category;
+        return this;
+    }
+
+    public List<String> getFolders() {
+        return folders;
+    }
+
+    public TornaPushResult setFolders(List<String> folders) {
+        this.folders = folders;
+        return this;
+    }
+
+    public int getApiCount() {
+        return apiCount;
+    }
+
+    public TornaPushResult setApiCount(int apiCount) {
+        this.apiCount = apiCount;
+        return this;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public TornaPushResult setAttempts(int attempts) {
+        this.attempts = attempts;
+        return this;
+    }
+
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    public TornaPushResult setElapsed(long elapsed) {
+        this.elapsed = elapsed;
+        return this;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public TornaPushResult setSuccess(boolean success) {
+        this.success = success;
+        return this;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public TornaPushResult setCode(String code) {
+        this.code = code;
+        return this;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public TornaPushResult setMessage(String message) {
+        this.message = message;
+        return this;
+    }
+
+    public HttpMetrics.CallMetrics getHttp() {
+        return http;
+    }
+
+    public TornaPushResult setHttp(HttpMetrics.CallMetrics http) {
+        this.http = http;
+        return this;
+    }
+}
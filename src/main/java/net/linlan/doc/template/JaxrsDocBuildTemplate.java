@@ -708,7 +708,7 @@ public class JaxrsDocBuildTemplate implements IDocBuildTemplate<ApiDoc> {
                             requestExample.setJsonBody(JsonUtil.toPrettyFormat(builder.toString())).setJson(true);
                         } else {
                             String json = JsonBuildHelper.buildJson(typeName, gicTypeName, Boolean.FALSE, 0, new HashMap<>(),groupClasses, configBuilder);
-                            requestExample.setJsonBody(JsonUtil.toPrettyFormat(json)).setJson(true);
+                            requestExample.setJsonBody(json).setJson(true);
                         }
                         paramAdded = true;
                     }
@@ -35,6 +35,7 @@ import net.linlan.doc.handler.SpringMVCRequestMappingHandler;
 import net.linlan.doc.helper.FormDataBuildHelper;
 import net.linlan.doc.helper.JsonBuildHelper;
 import net.linlan.doc.helper.ParamsBuildHelper;
+import net.linlan.doc.library.SynchronizedClassLibrary;
 import net.linlan.doc.model.*;
 import net.linlan.doc.model.request.ApiRequestExample;
 import net.linlan.doc.model.request.CurlRequest;
@@ -46,6 +47,8 @@ import net.linlan.doc.utils.*;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -67,12 +70,14 @@ public class SpringBootDocBuildTemplate implements IDocBuildTemplate<ApiDoc> {
     @Override
     public List<ApiDoc> getApiData(ProjectDocConfigBuilder projectBuilder) {
         ApiConfig apiConfig = projectBuilder.getApiConfig();
-        this.configApiReqParams = Stream.of(apiConfig.getRequestHeaders(), apiConfig.getRequestParams()).filter(Objects::nonNull)
-                .flatMap(Collection::stream).collect(Collectors.toList());
+        this.configApiReqParams = Collections.unmodifiableList(Stream.of(apiConfig.getRequestHeaders(), apiConfig.getRequestParams()).filter(Objects::nonNull)
+                .flatMap(Collection::stream).collect(Collectors.toList()));
         List<ApiDoc> apiDocList = new ArrayList<>();
         int order = 0;
         Collection<JavaClass> classes = projectBuilder.getJavaProjectBuilder().getClasses();
         boolean setCustomOrder = false;
+        List<JavaClass> controllers = new ArrayList<>();
+        List<Integer> orders = new ArrayList<>();
         for (JavaClass cls : classes) {
             if (StringUtils.isNotEmpty(apiConfig.getPackageFilters())) {
                 if (!DocUtil.isMatch(apiConfig.getPackageFilters(), cls.getCanonicalName())) {
@@ -89,8 +94,12 @@ public class SpringBootDocBuildTemplate implements IDocBuildTemplate<ApiDoc> {
                 setCustomOrder = true;
                 order = Integer.parseInt(strOrder);
             }
-            List<ApiMethodDoc> apiMethodDocs = buildControllerMethod(cls, apiConfig, projectBuilder);
-            this.handleApiDoc(cls, apiDocList, apiMethodDocs, order, apiConfig.isMd5EncryptedHtmlName());
+            controllers.add(cls);
+            orders.add(order);
+        }
+        List<List<ApiMethodDoc>> controllerMethods = buildControllerMethods(controllers, apiConfig, projectBuilder);
+        for (int i = 0; i < controllers.size(); i++) {
+            this.handleApiDoc(controllers.get(i), apiDocList, controllerMethods.get(i), orders.get(i), apiConfig.isMd5EncryptedHtmlName());
         }
         // handle TagsApiDoc
         apiDocList = handleTagsApiDoc(apiDocList);
@@ -182,6 +191,40 @@ public class SpringBootDocBuildTemplate implements IDocBuildTemplate<ApiDoc> {
         return JavaClassValidateUtil.isMvcIgnoreParams(typeName, ignoreParams);
     }
 
+    /**
+     * build the methods of every controller, on a pool when parallelism is set.
+     * Results keep the order of the controllers.
+     */
+    private List<List<ApiMethodDoc>> buildControllerMethods(List<JavaClass> controllers, ApiConfig apiConfig,
+                                                            ProjectDocConfigBuilder projectBuilder) {
+        int parallelism = Math.min(apiConfig.getParallelism(), controllers.size());
+        List<List<ApiMethodDoc>> controllerMethods = new ArrayList<>(controllers.size());
+        // qdox fills its model lazily and is only safe to share behind a SynchronizedClassLibrary
+        if (parallelism > 1 && !(controllers.get(0).getJavaClassLibrary() instanceof SynchronizedClassLibrary)) {
+            log.warning("parallelism is ignored, the project model is not built by DocClassLibraryBuilder");
+            parallelism = 1;
+        }
+        if (parallelism <= 1) {
+            for (JavaClass cls : controllers) {
+                controllerMethods.add(buildControllerMethod(cls, apiConfig, projectBuilder));
+            }
+            return controllerMethods;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<List<ApiMethodDoc>>> tasks = new ArrayList<>(controllers.size());
+            for (JavaClass cls : controllers) {
+                tasks.add(pool.submit(() -> buildControllerMethod(cls, apiConfig, projectBuilder)));
+            }
+            for (ForkJoinTask<List<ApiMethodDoc>> task : tasks) {
+                controllerMethods.add(task.join());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return controllerMethods;
+    }
+
     private List<ApiMethodDoc> buildControllerMethod(final JavaClass cls, ApiConfig apiConfig,
                                                      ProjectDocConfigBuilder projectBuilder) {
         String clazName = cls.getCanonicalName();
@@ -519,7 +562,7 @@ public class SpringBootDocBuildTemplate implements IDocBuildTemplate<ApiDoc> {
                         requestExample.setJsonBody(JsonUtil.toPrettyFormat(builder.toString())).setJson(true);
                     } else {
                         String json = JsonBuildHelper.buildJson(typeName, gicTypeName, Boolean.FALSE, 0, new HashMap<>(),groupClasses, configBuilder);
-                        requestExample.setJsonBody(JsonUtil.toPrettyFormat(json)).setJson(true);
+                        requestExample.setJsonBody(json).setJson(true);
                     }
                     paramAdded = true;
                 } else if (SpringMvcAnnotations.PATH_VARIABLE.contains(annotationName)) {
@@ -25,14 +25,23 @@ package net.linlan.doc.utils;
 import net.linlan.doc.common.util.FileUtil;
 import org.beetl.core.Configuration;
 import org.beetl.core.GroupTemplate;
+import org.beetl.core.Resource;
 import org.beetl.core.Template;
 import org.beetl.core.resource.ClasspathResourceLoader;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Beetl template handle util
@@ -41,23 +50,81 @@ import java.util.Objects;
  */
 public class BeetlTemplateUtil {
 
+    /**
+     * template groups by resource root, templates are compiled once per group
+     */
+    private static final Map<String, GroupTemplate> GROUP_TEMPLATES = new ConcurrentHashMap<>();
+
+    private static final String TEMPLATE_ROOT = "template";
 
     /**
-     * Get Beetl template by file name
+     * templates read from the classpath to be compiled, a template is only read on a miss
+     * of the compiled program cache
+     */
+    private static final AtomicLong COMPILE_COUNT = new AtomicLong();
+
+    /**
+     * Get Beetl template by file name. The template is compiled on first use and shared,
+     * every call returns a new instance that can be bound and rendered on its own thread.
      *
      * @param templateName template name
      * @return Beetl Template Object
      */
     public static Template getByName(String templateName) {
-        try {
-            ClasspathResourceLoader resourceLoader = new ClasspathResourceLoader("/template/");
-            Configuration cfg = Configuration.defaultConfiguration();
-            cfg.add("/doc-beetl.properties");
-            GroupTemplate gt = new GroupTemplate(resourceLoader, cfg);
-            return gt.getTemplate(templateName);
+        return getGroupTemplate(TEMPLATE_ROOT).getTemplate(templateName);
+    }
+
+    /**
+     * Render a template straight into a file, an open {@link OutputSink} hashes the page
+     * while it is written and only replaces the file when it changed. A file that can't be
+     * written fails the build.
+     *
+     * @param template Beetl Template Object
+     * @param filePath file path
+     */
+    public static void renderToFile(Template template, String filePath) {
+        try (OutputSink.FileOutput file = OutputSink.newOutputStream(filePath)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(file, StandardCharsets.UTF_8));
+            template.renderTo(writer);
+            writer.flush();
+            file.commit();
         } catch (IOException e) {
-            throw new RuntimeException("Can't get Beetl template.");
+            throw new RuntimeException("Failed to write doc page " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Render a template into utf-8 bytes
+     *
+     * @param template Beetl Template Object
+     * @return rendered bytes
+     * @throws IOException io exception
+     */
+    public static byte[] renderToBytes(Template template) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            template.renderTo(writer);
         }
+        return out.toByteArray();
+    }
+
+    /**
+     * Compile templates before they are rendered
+     *
+     * @param templateNames template names
+     */
+    public static void warmUp(String... templateNames) {
+        GroupTemplate gt = getGroupTemplate(TEMPLATE_ROOT);
+        for (String templateName : templateNames) {
+            gt.getTemplate(templateName);
+        }
+    }
+
+    /**
+     * @return number of templates compiled in this process
+     */
+    public static long getCompileCount() {
+        return COMPILE_COUNT.get();
     }
 
     /**
@@ -86,17 +153,59 @@ public class BeetlTemplateUtil {
     }
 
     /**
-     * @param path
-     * @return
+     * @param path resource root
+     * @return GroupTemplate
      */
     private static GroupTemplate getGroupTemplate(String path) {
+        GroupTemplate gt = GROUP_TEMPLATES.get(path);
+        if (Objects.isNull(gt)) {
+            gt = GROUP_TEMPLATES.computeIfAbsent(path, BeetlTemplateUtil::createGroupTemplate);
+        }
+        return gt;
+    }
+
+    private static GroupTemplate createGroupTemplate(String path) {
         try {
-            ClasspathResourceLoader resourceLoader = new ClasspathResourceLoader("/" + path + "/");
+            ClasspathResourceLoader resourceLoader = new CountingResourceLoader("/" + path + "/");
+            // templates do not change while the process runs
+            resourceLoader.setAutoCheck(false);
             Configuration cfg = Configuration.defaultConfiguration();
-            GroupTemplate gt = new GroupTemplate(resourceLoader, cfg);
-            return gt;
+            cfg.add("/doc-beetl.properties");
+            return new GroupTemplate(resourceLoader, cfg);
         } catch (IOException e) {
-            throw new RuntimeException("Can't found Beetl template.");
+            throw new RuntimeException("Can't get Beetl template.");
+        }
+    }
+
+    /**
+     * Classpath loader that counts the templates read for compilation
+     */
+    private static class CountingResourceLoader extends ClasspathResourceLoader {
+
+        CountingResourceLoader(String root) {
+            super(root);
+        }
+
+        @Override
+        public Resource getResource(String key) {
+            Resource resource = super.getResource(key);
+            return new Resource<String>(key, this) {
+                @Override
+                public Reader openReader() {
+                    COMPILE_COUNT.incrementAndGet();
+                    return resource.openReader();
+                }
+
+                @Override
+                public boolean isModified() {
+                    return resource.isModified();
+                }
+
+                @Override
+                public String getContent(int start, int end) throws IOException {
+                    return resource.getContent(start, end);
+                }
+            };
         }
     }
 }
@@ -45,6 +45,10 @@ public class DocClassUtil {
      * @return array of string
      */
     public static String[] getSimpleGicName(String typeName) {
+        return TypeNameRef.of(typeName).getGenericNames();
+    }
+
+    static String[] splitGicName(String typeName) {
         if (JavaClassValidateUtil.isCollection(typeName)) {
             typeName = typeName + "<T>";
         } else if (JavaClassValidateUtil.isArray(typeName)) {
@@ -76,11 +80,7 @@ public class DocClassUtil {
      * @return String
      */
     public static String getSimpleName(String gicName) {
-        if (gicName.contains("<")) {
-            return gicName.substring(0, gicName.indexOf("<"));
-        } else {
-            return gicName;
-        }
+        return TypeNameRef.of(gicName).getSimpleName();
     }
 
     /**
@@ -167,6 +167,10 @@ public class DocClassUtil {
         if (StringUtils.isEmpty(javaTypeName)) {
             return "object";
         }
+        return TypeNameRef.of(javaTypeName).getParamType();
+    }
+
+    static String paramTypeName(String javaTypeName) {
         if (javaTypeName.length() == 1) {
             return "object";
         }
@@ -716,9 +716,9 @@ public class DocUtil {
      * @return string
      */
     public static String formatFieldTypeGicName(Map<String, String> genericMap, String[] globGicName, String fieldGicName) {
-        String[] gNameArr = DocClassUtil.getSimpleGicName(fieldGicName);
-        if (gNameArr.length > 0) {
-            String gName = gNameArr[0];
+        List<TypeNameRef> arguments = TypeNameRef.of(fieldGicName).getArguments();
+        if (arguments.size() > 0) {
+            String gName = arguments.get(0).getName();
             if (gName.length() == 1) {
                 String gicName = "";
                 if (Objects.nonNull(genericMap.get(gName))) {
@@ -170,14 +170,11 @@ public class JavaClassUtil {
                 if (javaField.getType().isEnum() && !typeChecked) {
                     docJavaField.setEnum(true);
                 }
-                for (Map.Entry<String, JavaType> entry : actualJavaTypes.entrySet()) {
-                    String key = entry.getKey();
-                    JavaType value = entry.getValue();
-                    if (gicName.equals(key)) {
-                        subTypeName = subTypeName.replaceAll(key, value.getFullyQualifiedName());
-                        gicName = gicName.replaceAll(key, value.getGenericCanonicalName());
-                        actualType = value.getFullyQualifiedName();
-                    }
+                JavaType value = actualJavaTypes.get(gicName);
+                if (Objects.nonNull(value)) {
+                    subTypeName = subTypeName.replace(gicName, value.getFullyQualifiedName());
+                    gicName = value.getGenericCanonicalName();
+                    actualType = value.getFullyQualifiedName();
                 }
                 docJavaField.setComment(javaField.getComment())
                         .setJavaField(javaField).setFullyQualifiedName(subTypeName)
@@ -70,6 +70,10 @@ public class JavaClassValidateUtil {
         if (Objects.isNull(type0)) {
             return true;
         }
+        return TypeNameRef.of(type0).isPrimitive();
+    }
+
+    static boolean checkPrimitive(String type0) {
         String type = type0.contains("java.lang") ? type0.substring(type0.lastIndexOf(".") + 1, type0.length()) : type0;
         type = type.toLowerCase();
         switch (type) {
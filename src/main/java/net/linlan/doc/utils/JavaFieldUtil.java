@@ -46,18 +46,19 @@ public class JavaFieldUtil {
     }
 
     /**
-     * @param data0          data0
      * @param typeSimpleName typeName
      * @param customField    config field
+     * @return json value, null when the field has no value
      */
-    public static void buildCustomField(StringBuilder data0, String typeSimpleName, CustomField customField) {
+    public static String buildCustomField(String typeSimpleName, CustomField customField) {
         Object val = customField.getValue();
         if (null != val) {
             if (DocUtil.javaPrimaryType(typeSimpleName)) {
-                data0.append(val).append(",");
+                return String.valueOf(val);
             } else {
-                data0.append(DocUtil.handleJsonStr(String.valueOf(val))).append(",");
+                return DocUtil.handleJsonStr(String.valueOf(val));
             }
         }
+        return null;
     }
 }
@@ -0,0 +1,282 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.regex.Pattern;
+
+/**
+ * Pretty printing writer for json examples. Values are written once, in the same layout
+ * {@link JsonUtil#toPrettyFormat(String)} produces, so the example never has to be parsed again.
+ * Raw fragments such as mock values are written as they are when they are json literals.
+ *
+ * @author yu 2026/10/17.
+ */
+public class JsonExampleWriter {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private static final Pattern LITERAL = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?|true|false|null");
+
+    private final StringWriter buffer = new StringWriter();
+
+    private final JsonWriter writer = new JsonWriter(buffer);
+
+    private int depth;
+
+    private boolean namePending;
+
+    private String message;
+
+    public JsonExampleWriter() {
+        writer.setIndent("  ");
+        writer.setLenient(true);
+        writer.setHtmlSafe(false);
+    }
+
+    public JsonExampleWriter beginObject() {
+        try {
+            writer.beginObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        namePending = false;
+        depth++;
+        return this;
+    }
+
+    public JsonExampleWriter endObject() {
+        try {
+            writer.endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        depth--;
+        return this;
+    }
+
+    public JsonExampleWriter beginArray() {
+        try {
+            writer.beginArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        namePending = false;
+        depth++;
+        return this;
+    }
+
+    public JsonExampleWriter endArray() {
+        try {
+            writer.endArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        depth--;
+        return this;
+    }
+
+    public JsonExampleWriter name(String name) {
+        try {
+            writer.name(name);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        namePending = true;
+        return this;
+    }
+
+    /**
+     * Write a string value
+     *
+     * @param value value
+     * @return this
+     */
+    public JsonExampleWriter value(String value) {
+        try {
+            writer.value(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        namePending = false;
+        return this;
+    }
+
+    /**
+     * Write a raw value such as {@code 1}, {@code "text"} or a mocked json. Anything that is
+     * not valid json is written as a string.
+     *
+     * @param raw raw value
+     * @return this
+     */
+    public JsonExampleWriter raw(String raw) {
+        if (raw == null) {
+            return fragment("null");
+        }
+        String val = raw.trim();
+        if (val.isEmpty()) {
+            return value(val);
+        }
+        if (LITERAL.matcher(val).matches()) {
+            return fragment(val);
+        }
+        char first = val.charAt(0);
+        if (first == '"' && val.length() > 1 && val.endsWith("\"")) {
+            String content = val.substring(1, val.length() - 1);
+            if (isPlain(content)) {
+                return fragment(val);
+            }
+            return element(val, content);
+        }
+        if (first == '{' || first == '[') {
+            return element(val, val);
+        }
+        return value(val);
+    }
+
+    /**
+     * Write a single field object such as {@code {"$ref":"..."}}
+     *
+     * @param name  field name
+     * @param value string value
+     * @return this
+     */
+    public JsonExampleWriter object(String name, String value) {
+        return beginObject().name(name).value(value).endObject();
+    }
+
+    /**
+     * Write a value that has been written by this kind of writer at the same depth before.
+     *
+     * @param json json value
+     * @return this
+     */
+    public JsonExampleWriter fragment(String json) {
+        try {
+            writer.jsonValue(json);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        namePending = false;
+        return this;
+    }
+
+    /**
+     * Write a text that is not json. At the top level it becomes the whole example,
+     * inside a value it is written as a string.
+     *
+     * @param text text
+     * @return this
+     */
+    public JsonExampleWriter message(String text) {
+        if (depth == 0 && buffer.getBuffer().length() == 0) {
+            message = text;
+            return this;
+        }
+        return value(text);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Mark the start of the next value
+     *
+     * @return mark
+     */
+    public Mark mark() {
+        return new Mark(buffer.getBuffer().length(), namePending);
+    }
+
+    /**
+     * Text of the value written since the mark, without the separator and field name in front of it
+     *
+     * @param mark mark
+     * @return json value
+     */
+    public String since(Mark mark) {
+        StringBuffer text = buffer.getBuffer();
+        int i = mark.position;
+        while (i < text.length() && (text.charAt(i) == ',' || Character.isWhitespace(text.charAt(i)))) {
+            i++;
+        }
+        if (mark.named && i < text.length() && text.charAt(i) == '"') {
+            i++;
+            while (i < text.length() && text.charAt(i) != '"') {
+                i += text.charAt(i) == '\\' ? 2 : 1;
+            }
+            i++;
+            while (i < text.length() && (text.charAt(i) == ':' || text.charAt(i) == ' ')) {
+                i++;
+            }
+        }
+        return text.substring(i);
+    }
+
+    @Override
+    public String toString() {
+        if (message != null) {
+            return message;
+        }
+        return buffer.toString();
+    }
+
+    private JsonExampleWriter element(String json, String fallback) {
+        JsonElement element;
+        try {
+            element = JsonParser.parseString(json);
+        } catch (JsonParseException e) {
+            return value(fallback);
+        }
+        GSON.toJson(element, writer);
+        namePending = false;
+        return this;
+    }
+
+    private static boolean isPlain(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20 || c == 0x2028 || c == 0x2029) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Position of a value in the written text
+     */
+    public static class Mark {
+
+        private final int position;
+
+        private final boolean named;
+
+        Mark(int position, boolean named) {
+            this.position = position;
+            this.named = named;
+        }
+    }
+}
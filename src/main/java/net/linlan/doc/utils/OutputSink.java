@@ -0,0 +1,528 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.linlan.doc.common.util.DigestUtil;
+import net.linlan.doc.constants.DocGlobalConstants;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the generated files of one builder run into an output directory. Every file is
+ * hashed and compared with the manifest of the previous run, files whose content did not
+ * change are left untouched and files the same builder wrote last time but not this time
+ * are deleted. The manifest is kept in the output directory so deploy tooling can sync
+ * only what changed.
+ * <p>
+ * While a sink is open every write below its directory goes through it, writes outside
+ * an open sink go straight to disk. Only one sink is open for a directory at a time, a
+ * builder that opens one while another thread writes to the same directory, e.g. a second
+ * module of a parallel maven build, waits until that sink is closed.
+ * <p>
+ * With {@link #gzip(int)} every text file that is written also gets a precompressed
+ * {@code .gz} sibling, for servers such as nginx with gzip_static. Files that did not change
+ * keep the sibling of the previous run.
+ *
+ * @author yu 2026/10/17.
+ */
+public class OutputSink implements AutoCloseable {
+
+    private static final Logger log = Logger.getLogger(OutputSink.class.getName());
+
+    private static final Map<Path, OutputSink> OPEN_SINKS = new ConcurrentHashMap<>();
+
+    private static final Map<Path, ReentrantLock> ROOT_LOCKS = new ConcurrentHashMap<>();
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private static final Set<String> TEXT_EXTENSIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "html", "htm", "js", "css", "json", "xml", "svg", "txt", "md", "adoc")));
+
+    private final Path root;
+
+    private final String source;
+
+    private final boolean deleteStale;
+
+    private final Map<String, Entry> previous;
+
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock;
+
+    private int gzipLevel = -2;
+
+    private int written;
+
+    private int skipped;
+
+    private int deleted;
+
+    private OutputSink(Path root, String source, boolean deleteStale, ReentrantLock lock) {
+        this.root = root;
+        this.source = source;
+        this.deleteStale = deleteStale;
+        this.lock = lock;
+        this.previous = Objects.isNull(root) ? new ConcurrentHashMap<>()
+                : readManifest(root.resolve(DocGlobalConstants.OUTPUT_MANIFEST));
+    }
+
+    /**
+     * Open a sink for the output directory of a builder
+     *
+     * @param outPath     output directory
+     * @param source      name of the builder, stale files are only deleted for the same name
+     * @param deleteStale false keeps the files of earlier runs, e.g. versioned all in one docs
+     * @return OutputSink
+     */
+    public static OutputSink open(String outPath, String source, boolean deleteStale) {
+        Path root = Paths.get(outPath).toAbsolutePath().normalize();
+        ReentrantLock lock = ROOT_LOCKS.computeIfAbsent(root, k -> new ReentrantLock());
+        if (lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("An output sink is already open for " + root
+                    + " on this thread, close it before " + source + " writes there");
+        }
+        if (!lock.tryLock()) {
+            log.info("Another build is writing to " + root + ", " + source + " waits until it is done");
+            lock.lock();
+        }
+        try {
+            // the manifest is read once the previous writer of the directory wrote it
+            OutputSink sink = new OutputSink(root, source, deleteStale, lock);
+            OPEN_SINKS.put(root, sink);
+            return sink;
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * A sink that tracks nothing, every file is written straight to disk
+     *
+     * @return OutputSink
+     */
+    public static OutputSink none() {
+        return new OutputSink(null, null, false, null);
+    }
+
+    /**
+     * Also write a gzip compressed sibling of every text file that changed
+     *
+     * @param level compression level, 1 to 9 or -1 for the default level of the jdk
+     * @return this sink
+     */
+    public OutputSink gzip(int level) {
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("gzip level must be between 1 and 9 or -1, was " + level);
+        }
+        this.gzipLevel = level;
+        return this;
+    }
+
+    /**
+     * Write a file, through the open sink of its directory if there is one
+     *
+     * @param filePath file path
+     * @param content  file content
+     * @return boolean
+     */
+    public static boolean write(String filePath, byte[] content) {
+        try {
+            writeFile(filePath, content);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Write a file like {@link #write(String, byte[])}, a failure is thrown to the caller
+     *
+     * @param filePath file path
+     * @param content  file content
+     * @throws IOException IOException
+     */
+    public static void writeFile(String filePath, byte[] content) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        OutputSink sink = find(path);
+        if (Objects.isNull(sink)) {
+            Files.createDirectories(path.getParent());
+            Files.write(path, content);
+        } else {
+            sink.put(path, content);
+        }
+    }
+
+    /**
+     * Write string contents as utf-8
+     *
+     * @param contents string contents
+     * @param filePath file path
+     * @return boolean
+     */
+    public static boolean write(String contents, String filePath) {
+        return write(filePath, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Open a stream for a file that is too large to build in memory first. The content goes
+     * to a temporary file, {@link FileOutput#commit()} moves it over the file, through an
+     * open sink only when it changed. Closing the stream without a commit deletes the
+     * temporary file and leaves the file as it was.
+     *
+     * @param filePath file path
+     * @return FileOutput
+     * @throws IOException IOException
+     */
+    public static FileOutput newOutputStream(String filePath) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        Files.createDirectories(path.getParent());
+        return new FileOutput(find(path), path);
+    }
+
+    private static OutputSink find(Path path) {
+        if (OPEN_SINKS.isEmpty()) {
+            return null;
+        }
+        for (Path parent = path.getParent(); Objects.nonNull(parent); parent = parent.getParent()) {
+            OutputSink sink = OPEN_SINKS.get(parent);
+            if (Objects.nonNull(sink)) {
+                return sink;
+            }
+        }
+        return null;
+    }
+
+    private void put(Path path, byte[] content) throws IOException {
+        String name = root.relativize(path).toString().replace('\\', '/');
+        Entry entry = new Entry(DigestUtil.sha256Hex(content), content.length, source);
+        if (isUnchanged(name, entry, path)) {
+            return;
+        }
+        Files.createDirectories(path.getParent());
+        Files.write(path, content);
+        written(name, path);
+    }
+
+    private void commit(Path path, Path temp, String hash, long size) throws IOException {
+        String name = root.relativize(path).toString().replace('\\', '/');
+        if (isUnchanged(name, new Entry(hash, size, source), path)) {
+            Files.delete(temp);
+            return;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        written(name, path);
+    }
+
+    /**
+     * Keep the manifest entries of a file whose new content was discarded, so it is not deleted as stale
+     */
+    private void keepPrevious(Path path) {
+        String name = root.relativize(path).toString().replace('\\', '/');
+        Entry last = previous.get(name);
+        if (Objects.nonNull(last) && Objects.isNull(current.putIfAbsent(name, last))) {
+            Entry lastGzip = previous.get(name + GZIP_SUFFIX);
+            if (Objects.nonNull(lastGzip)) {
+                current.putIfAbsent(name + GZIP_SUFFIX, lastGzip);
+            }
+        }
+    }
+
+    /**
+     * Record the entry of a file and tell whether the file on disk already has that content
+     */
+    private boolean isUnchanged(String name, Entry entry, Path path) throws IOException {
+        current.put(name, entry);
+        Entry last = previous.get(name);
+        if (Objects.isNull(last) || !last.hash.equals(entry.hash) || last.size != entry.size
+                || !Files.isRegularFile(path) || Files.size(path) != entry.size) {
+            return false;
+        }
+        synchronized (this) {
+            skipped++;
+        }
+        if (isCompressed(name) && !keep(name + GZIP_SUFFIX)) {
+            compress(name, path);
+        }
+        return true;
+    }
+
+    private void written(String name, Path path) throws IOException {
+        synchronized (this) {
+            written++;
+        }
+        if (isCompressed(name)) {
+            compress(name, path);
+        }
+    }
+
+    private boolean isCompressed(String name) {
+        if (gzipLevel < -1) {
+            return false;
+        }
+        int dot = name.lastIndexOf('.');
+        return dot > name.lastIndexOf('/') && TEXT_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+    }
+
+    /**
+     * Keep the sibling of an unchanged file when it is still on disk as the last run left it
+     */
+    private boolean keep(String name) throws IOException {
+        Entry last = previous.get(name);
+        Path path = root.resolve(name);
+        if (Objects.isNull(last) || !Files.isRegularFile(path) || Files.size(path) != last.size) {
+            return false;
+        }
+        current.put(name, last);
+        return true;
+    }
+
+    private void compress(String name, Path path) throws IOException {
+        Path target = path.resolveSibling(path.getFileName() + GZIP_SUFFIX);
+        MessageDigest digest = DigestUtil.sha256();
+        try (GZIPOutputStream out = new GZIPOutputStream(new DigestOutputStream(Files.newOutputStream(target), digest), 8192) {
+            {
+                def.setLevel(gzipLevel);
+            }
+        }) {
+            Files.copy(path, out);
+        }
+        current.put(name + GZIP_SUFFIX, new Entry(DigestUtil.toHex(digest.digest()), Files.size(target), source));
+    }
+
+    /**
+     * Finish the sink and let the next builder write to the directory
+     */
+    @Override
+    public void close() {
+        if (Objects.isNull(root) || !OPEN_SINKS.remove(root, this)) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete the stale files of this builder and write the manifest
+     */
+    private void finish() {
+        Map<String, Entry> manifest = new TreeMap<>();
+        for (Map.Entry<String, Entry> last : previous.entrySet()) {
+            String name = last.getKey();
+            if (current.containsKey(name)) {
+                continue;
+            }
+            if (!deleteStale || !source.equals(last.getValue().source)) {
+                manifest.put(name, last.getValue());
+                continue;
+            }
+            try {
+                if (Files.deleteIfExists(root.resolve(name))) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        manifest.putAll(current);
+        writeManifest(root.resolve(DocGlobalConstants.OUTPUT_MANIFEST), manifest);
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    private static Map<String, Entry> readManifest(Path file) {
+        Map<String, Entry> manifest = new ConcurrentHashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return manifest;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonObject files = JsonParser.parseReader(reader).getAsJsonObject().getAsJsonObject("files");
+            for (Map.Entry<String, JsonElement> file1 : files.entrySet()) {
+                JsonObject value = file1.getValue().getAsJsonObject();
+                manifest.put(file1.getKey(), new Entry(value.get("sha256").getAsString(),
+                        value.get("size").getAsLong(), value.get("source").getAsString()));
+            }
+        } catch (Exception e) {
+            // an unreadable manifest only means every file is written again
+            manifest.clear();
+        }
+        return manifest;
+    }
+
+    private static void writeManifest(Path file, Map<String, Entry> manifest) {
+        JsonObject files = new JsonObject();
+        for (Map.Entry<String, Entry> entry : manifest.entrySet()) {
+            JsonObject value = new JsonObject();
+            value.addProperty("sha256", entry.getValue().hash);
+            value.addProperty("size", entry.getValue().size);
+            value.addProperty("source", entry.getValue().source);
+            files.add(entry.getKey(), value);
+        }
+        JsonObject json = new JsonObject();
+        json.add("files", files);
+        byte[] content = GSON.toJson(json).getBytes(StandardCharsets.UTF_8);
+        try {
+            if (Files.isRegularFile(file) && Arrays.equals(content, Files.readAllBytes(file))) {
+                return;
+            }
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stream of one file, written to a temporary file next to it until it is committed
+     */
+    public static class FileOutput extends FilterOutputStream {
+
+        private final OutputSink sink;
+
+        private final Path path;
+
+        private final Path temp;
+
+        private final MessageDigest digest = DigestUtil.sha256();
+
+        private long size;
+
+        private boolean committed;
+
+        private boolean closed;
+
+        private FileOutput(OutputSink sink, Path path) throws IOException {
+            super(null);
+            this.sink = sink;
+            this.path = path;
+            // not a temp file of Files, those are only readable by the owner
+            this.temp = Files.createFile(path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp"));
+            this.out = new DigestOutputStream(Files.newOutputStream(temp), digest);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            size += len;
+        }
+
+        /**
+         * Finish the file, call it once everything was written
+         *
+         * @throws IOException IOException
+         */
+        public void commit() throws IOException {
+            if (closed) {
+                throw new IOException("Stream of " + path + " is already closed");
+            }
+            closed = true;
+            super.close();
+            if (Objects.isNull(sink)) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                sink.commit(path, temp, DigestUtil.toHex(digest.digest()), size);
+            }
+            committed = true;
+        }
+
+        /**
+         * Discard the temporary file unless the stream was committed, the file keeps its old content
+         */
+        @Override
+        public void close() throws IOException {
+            if (committed) {
+                return;
+            }
+            committed = true;
+            try {
+                if (!closed) {
+                    closed = true;
+                    super.close();
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+                if (Objects.nonNull(sink)) {
+                    sink.keepPrevious(path);
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final String hash;
+
+        private final long size;
+
+        private final String source;
+
+        Entry(String hash, long size, String source) {
+            this.hash = hash;
+            this.size = size;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.utils;
+
+import org.beetl.core.Template;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.UnaryOperator;
+
+/**
+ * Renders pages on a bounded pool and writes them from a single writer thread in the
+ * order they were submitted. Bindings are set by the caller before a page is submitted,
+ * so qdox and the doc model are only touched on the calling thread. Submitting blocks
+ * while too many rendered pages wait to be written.
+ * With a parallelism of 1 or less every page is rendered straight into its file.
+ * A page that can't be written fails the build, right away on the serial path and
+ * from {@link #close()} otherwise.
+ *
+ * @author yu 2026/10/17.
+ */
+public class PageRenderer implements AutoCloseable {
+
+    private final ExecutorService renderPool;
+
+    private final ExecutorService writer;
+
+    private final Semaphore pages;
+
+    private final List<Future<?>> writes = new ArrayList<>();
+
+    /**
+     * @param parallelism number of pages rendered at the same time
+     */
+    public PageRenderer(int parallelism) {
+        if (parallelism > 1) {
+            renderPool = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread thread = new Thread(r, "doc-generate-render");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "doc-generate-write");
+                thread.setDaemon(true);
+                return thread;
+            });
+            pages = new Semaphore(parallelism * 2);
+        } else {
+            renderPool = null;
+            writer = null;
+            pages = null;
+        }
+    }
+
+    /**
+     * Render a bound template into a file
+     *
+     * @param template Beetl Template Object
+     * @param filePath file path
+     */
+    public void render(Template template, String filePath) {
+        if (renderPool == null) {
+            BeetlTemplateUtil.renderToFile(template, filePath);
+            return;
+        }
+        render(template, filePath, UnaryOperator.identity());
+    }
+
+    /**
+     * Render a bound template, the rendered bytes are passed through a filter before they are written
+     *
+     * @param template Beetl Template Object
+     * @param filePath file path
+     * @param filter   turns the rendered page into the file content
+     */
+    public void render(Template template, String filePath, UnaryOperator<byte[]> filter) {
+        if (renderPool == null) {
+            try {
+                OutputSink.writeFile(filePath, filter.apply(BeetlTemplateUtil.renderToBytes(template)));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write doc page " + filePath + ": " + e.getMessage(), e);
+            }
+            return;
+        }
+        pages.acquireUninterruptibly();
+        Future<byte[]> page;
+        try {
+            page = renderPool.submit(() -> filter.apply(BeetlTemplateUtil.renderToBytes(template)));
+        } catch (RuntimeException e) {
+            pages.release();
+            throw e;
+        }
+        writes.add(writer.submit(() -> {
+            try {
+                OutputSink.writeFile(filePath, page.get());
+            } catch (IOException e) {
+                throw new IOException("Failed to write doc page " + filePath + ": " + e.getMessage(), e);
+            } finally {
+                pages.release();
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Wait until every submitted page is written
+     */
+    @Override
+    public void close() {
+        if (renderPool == null) {
+            return;
+        }
+        try {
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while writing doc pages.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // a page that failed to render reaches close() through its write
+            if (cause instanceof ExecutionException) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw new RuntimeException(cause.getMessage(), cause);
+            }
+            throw new RuntimeException("Failed to render doc page: " + cause.getMessage(), cause);
+        } finally {
+            renderPool.shutdownNow();
+            writer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Builds the inverted index used by the search box of the html docs. Every indexed
+ * entry is a reference path into the directory tree of the page, its texts are split
+ * into lower case words, camel case parts of words and one and two character runs of
+ * ideographs. Terms are written sorted so the page can answer prefix queries with a
+ * binary search.
+ *
+ * @author yu 2026/10/17.
+ */
+public class SearchIndexBuilder {
+
+    private final List<int[]> refs = new ArrayList<>();
+
+    private final Map<String, TreeSet<Integer>> postings = new TreeMap<>();
+
+    /**
+     * Add an entry
+     *
+     * @param path  indexes of the entry in the directory tree
+     * @param texts texts of the entry, null texts are skipped
+     */
+    public void add(int[] path, String... texts) {
+        int ref = refs.size();
+        refs.add(path);
+        for (String text : texts) {
+            if (Objects.isNull(text)) {
+                continue;
+            }
+            for (String term : tokenize(text)) {
+                postings.computeIfAbsent(term, k -> new TreeSet<>()).add(ref);
+            }
+        }
+    }
+
+    /**
+     * Split a text into index terms, it has to stay in line with the tokenizer of the search script
+     *
+     * @param text text
+     * @return terms
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int cp = text.codePointAt(i);
+            if (Character.isIdeographic(cp)) {
+                List<String> chars = new ArrayList<>();
+                while (i < length && Character.isIdeographic(cp = text.codePointAt(i))) {
+                    chars.add(new String(Character.toChars(cp)));
+                    i += Character.charCount(cp);
+                }
+                for (int j = 0; j < chars.size(); j++) {
+                    terms.add(chars.get(j));
+                    if (j + 1 < chars.size()) {
+                        terms.add(chars.get(j) + chars.get(j + 1));
+                    }
+                }
+            } else if (Character.isLetterOrDigit(cp)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(cp = text.codePointAt(i)) && !Character.isIdeographic(cp)) {
+                    i += Character.charCount(cp);
+                }
+                addWord(text.substring(start, i), terms);
+            } else {
+                i += Character.charCount(cp);
+            }
+        }
+        return terms;
+    }
+
+    private static void addWord(String word, List<String> terms) {
+        terms.add(word.toLowerCase(Locale.ROOT));
+        int start = 0;
+        for (int i = 1; i < word.length(); i++) {
+            char previous = word.charAt(i - 1);
+            char current = word.charAt(i);
+            boolean boundary = (Character.isLowerCase(previous) && Character.isUpperCase(current))
+                    || (Character.isDigit(previous) != Character.isDigit(current))
+                    || (Character.isUpperCase(previous) && Character.isUpperCase(current)
+                    && i + 1 < word.length() && Character.isLowerCase(word.charAt(i + 1)));
+            if (boundary) {
+                if (start > 0) {
+                    terms.add(word.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = i;
+            }
+        }
+        if (start > 0) {
+            terms.add(word.substring(start).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * @return the index as json, terms are sorted and share their position with their postings
+     */
+    public String toJson() {
+        JsonArray terms = new JsonArray();
+        JsonArray lists = new JsonArray();
+        for (Map.Entry<String, TreeSet<Integer>> entry : postings.entrySet()) {
+            terms.add(entry.getKey());
+            JsonArray list = new JsonArray();
+            for (Integer ref : entry.getValue()) {
+                list.add(ref);
+            }
+            lists.add(list);
+        }
+        JsonArray paths = new JsonArray();
+        for (int[] path : refs) {
+            JsonArray array = new JsonArray();
+            for (int index : path) {
+                array.add(index);
+            }
+            paths.add(array);
+        }
+        JsonObject json = new JsonObject();
+        json.add("terms", terms);
+        json.add("postings", lists);
+        json.add("refs", paths);
+        return json.toString();
+    }
+}
@@ -0,0 +1,533 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import net.linlan.doc.common.exception.TornaPushException;
+import net.linlan.doc.common.util.HttpMetrics;
+import net.linlan.doc.common.util.OkHttp3Util;
+import net.linlan.doc.constants.TornaConstants;
+import net.linlan.doc.model.ApiConfig;
+import net.linlan.doc.model.torna.Apis;
+import net.linlan.doc.model.torna.TornaApi;
+import net.linlan.doc.model.torna.TornaDic;
+import net.linlan.doc.model.torna.TornaPushResult;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Pushes a torna document in batches. The apis are split by folder, a controller or
+ * interface folder is never split and its group folders are repeated in every batch
+ * that holds one of its children. When the document replaces the old one the first
+ * batch is sent alone, the others are appended after it on a bounded pool.
+ * Connect errors, timeouts and 408, 429 or 5xx responses are retried with an
+ * exponential backoff, an error code returned by torna is not. A push with a failed
+ * batch throws a {@link TornaPushException} once the report is printed.
+ *
+ * @author yu 2026/10/17.
+ */
+public class TornaPushPipeline {
+
+    private static final long MAX_BACKOFF = 30000L;
+
+    private final ApiConfig config;
+
+    private final HttpMetrics metrics = new HttpMetrics();
+
+    /**
+     * client built from the http settings of the config, the shared client is left alone
+     */
+    private final OkHttpClient httpClient;
+
+    public TornaPushPipeline(ApiConfig config) {
+        this.config = config;
+        this.httpClient = TornaUtil.buildHttpClient(config, metrics);
+    }
+
+    public HttpMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Push the enum dictionaries in one request
+     *
+     * @param docDicts dictionaries
+     * @return result of the request
+     * @throws TornaPushException when the request failed
+     */
+    public TornaPushResult pushDictionary(List<TornaDic> docDicts) {
+        Map<String, Object> dicMap = new HashMap<>(2);
+        dicMap.put("enums", docDicts);
+        TornaPushResult result = new TornaPushResult()
+                .setIndex(1)
+                .setCategory(TornaConstants.ENUM_PUSH)
+                .setFolders(Collections.emptyList());
+        send(result, dicMap);
+        report(Collections.singletonList(result));
+        checkResults(Collections.singletonList(result), false);
+        return result;
+    }
+
+    /**
+     * Push the document and print a report of every batch. With a torna snapshot only the
+     * apis added or changed since the last push are sent, appended to the old document.
+     * Torna has no open api to delete a single doc, so when apis were removed and replace
+     * is on the whole document is pushed again, with replace off they are only reported.
+     *
+     * @param tornaApi document
+     * @return results in batch order, empty when nothing changed
+     * @throws TornaPushException when a batch failed, after the snapshot is written
+     */
+    public List<TornaPushResult> push(TornaApi tornaApi) {
+        String snapshotFile = config.getTornaSnapshot();
+        if (StringUtils.isBlank(snapshotFile)) {
+            return checkResults(push(split(tornaApi, config.getTornaBatchSize())),
+                    Integer.valueOf(1).equals(tornaApi.getIsReplace()));
+        }
+        TornaSnapshot previous = TornaSnapshot.read(snapshotFile);
+        TornaSnapshot current = TornaSnapshot.of(tornaApi, config);
+        Map<String, String> removed = current.removed(previous);
+        boolean replace = Integer.valueOf(1).equals(tornaApi.getIsReplace());
+        if (!removed.isEmpty()) {
+            System.out.println("Torna snapshot: " + removed.size() + " apis removed since the last push "
+                    + removed.values() + (replace ? ", pushing the whole document to delete them"
+                    : ", replace is off so torna keeps them"));
+        }
+        boolean full = config.isTornaFullSync() || !current.isSameDoc(previous) || (replace && !removed.isEmpty());
+        List<Batch> batches;
+        if (full) {
+            batches = split(tornaApi, config.getTornaBatchSize());
+        } else {
+            TornaApi delta = copyOf(tornaApi);
+            delta.setIsReplace(0);
+            delta.setApis(select(tornaApi.getApis(), api -> current.isChanged(previous, api)));
+            if (delta.getApis().isEmpty()) {
+                System.out.println("Torna snapshot: no api changed since the last push, "
+                        + current.size() + " apis up to date");
+                current.merge(previous, removed.keySet(), Collections.emptyList(), Collections.emptyList())
+                        .write(snapshotFile);
+                printMetrics();
+                return Collections.emptyList();
+            }
+            batches = split(delta, config.getTornaBatchSize());
+            int changed = 0;
+            for (Batch batch : batches) {
+                changed += batch.apiCount;
+            }
+            System.out.println("Torna snapshot: pushing " + changed + " added or changed apis");
+        }
+        List<TornaPushResult> results = push(batches);
+        List<String> pushed = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            (results.get(i).isSuccess() ? pushed : failed).addAll(batches.get(i).methodIds);
+        }
+        // a full push that failed altogether leaves torna and the old snapshot as they were
+        if (!full || !pushed.isEmpty()) {
+            current.merge(full ? null : previous, removed.keySet(), pushed, failed).write(snapshotFile);
+        }
+        return checkResults(results, full && replace);
+    }
+
+    private List<TornaPushResult> push(List<Batch> batches) {
+        List<TornaPushResult> results = new ArrayList<>(batches.size());
+        boolean replace = Integer.valueOf(1).equals(batches.get(0).api.getIsReplace());
+        int first = 0;
+        if (replace || batches.size() == 1) {
+            results.add(send(batches.get(0), 1));
+            first = 1;
+        }
+        if (first == 1 && !results.get(0).isSuccess()) {
+            for (int i = 1; i < batches.size(); i++) {
+                results.add(batches.get(i).result(i + 1)
+                        .setCode("-")
+                        .setMessage("skipped, the first batch failed"));
+            }
+        } else if (first < batches.size()) {
+            for (int i = first; i < batches.size(); i++) {
+                batches.get(i).api.setIsReplace(0);
+            }
+            int threads = Math.max(1, Math.min(config.getTornaPushThreads(), batches.size() - first));
+            ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "doc-generate-torna");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<TornaPushResult>> futures = new ArrayList<>(batches.size() - first);
+                for (int i = first; i < batches.size(); i++) {
+                    Batch batch = batches.get(i);
+                    int index = i + 1;
+                    futures.add(pool.submit(() -> send(batch, index)));
+                }
+                for (Future<TornaPushResult> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Torna push interrupted", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Torna push failed", e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        report(results);
+        printMetrics();
+        return results;
+    }
+
+    private TornaPushResult send(Batch batch, int index) {
+        return send(batch.result(index), batch.api);
+    }
+
+    private TornaPushResult send(TornaPushResult result, Object data) {
+        long start = System.currentTimeMillis();
+        HttpMetrics.CallMetrics http = new HttpMetrics.CallMetrics();
+        result.setHttp(http);
+        int maxRetries = Math.max(0, config.getTornaMaxRetries());
+        for (int attempt = 1; ; attempt++) {
+            result.setAttempts(attempt);
+            boolean retry;
+            try (Response response = httpClient.newCall(buildRequest(result.getCategory(), data, http)).execute()) {
+                ResponseBody body = response.body();
+                String responseMsg = body == null ? null : body.string();
+                if (response.isSuccessful()) {
+                    retry = false;
+                    JsonElement element = responseMsg == null ? null : JsonParser.parseString(responseMsg);
+                    if (element == null || !element.isJsonObject() || !element.getAsJsonObject().has(TornaConstants.CODE)) {
+                        result.setSuccess(false).setCode(String.valueOf(response.code()))
+                                .setMessage("unexpected response: " + responseMsg);
+                    } else {
+                        JsonObject json = element.getAsJsonObject();
+                        String code = json.get(TornaConstants.CODE).getAsString();
+                        result.setSuccess(TornaConstants.SUCCESS_CODE.equals(code))
+                                .setCode(code)
+                                .setMessage(json.has(TornaConstants.MESSAGE) ? json.get(TornaConstants.MESSAGE).getAsString() : null);
+                        if (config.isTornaDebug()) {
+                            // only the debug log needs the request as a string
+                            Map<String, String> requestJson = TornaConstants.buildParams(result.getCategory(),
+                                    TornaConstants.PUSH_GSON.toJson(data), config);
+                            TornaUtil.printDebugInfo(config, responseMsg, requestJson, result.getCategory());
+                        }
+                    }
+                } else {
+                    int status = response.code();
+                    retry = status == 408 || status == 429 || status >= 500;
+                    result.setSuccess(false).setCode(String.valueOf(status)).setMessage(response.message());
+                }
+            } catch (JsonParseException e) {
+                retry = false;
+                result.setSuccess(false).setCode("-").setMessage("unexpected response: " + e.getMessage());
+            } catch (IOException e) {
+                retry = true;
+                result.setSuccess(false).setCode("-").setMessage(e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+            if (!retry || attempt > maxRetries) {
+                break;
+            }
+            long backoff = Math.min(MAX_BACKOFF, config.getTornaRetryBackoff() << Math.min(attempt - 1, 16));
+            try {
+                Thread.sleep(Math.max(0L, backoff));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return result.setElapsed(System.currentTimeMillis() - start);
+    }
+
+    private Request buildRequest(String category, Object data, HttpMetrics.CallMetrics http) {
+        Request.Builder builder = new Request.Builder().url(config.getOpenUrl()).tag(HttpMetrics.CallMetrics.class, http);
+        if (config.isTornaGzip()) {
+            builder.header("Content-Encoding", "gzip");
+        }
+        RequestBody body = OkHttp3Util.jsonBody(writer -> TornaConstants.writeParams(category, data, config, writer),
+                config.isTornaGzip());
+        return builder.post(body).build();
+    }
+
+    private void printMetrics() {
+        if (metrics.getCalls() > 0) {
+            System.out.println("Torna http: " + metrics.summary());
+        }
+    }
+
+    private static void report(List<TornaPushResult> results) {
+        int failed = 0;
+        int apis = 0;
+        for (TornaPushResult result : results) {
+            failed += result.isSuccess() ? 0 : 1;
+            apis += result.getApiCount();
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("Torna ").append(results.get(0).getCategory()).append(": ")
+                .append(results.size()).append(" batches, ")
+                .append(results.size() - failed).append(" succeeded, ")
+                .append(failed).append(" failed, ")
+                .append(apis).append(" apis");
+        for (TornaPushResult result : results) {
+            sb.append("\n  #").append(result.getIndex())
+                    .append(" folders=").append(result.getFolders().size())
+                    .append(" apis=").append(result.getApiCount())
+                    .append(" attempts=").append(result.getAttempts())
+                    .append(' ').append(result.getElapsed()).append(" ms ");
+            HttpMetrics.CallMetrics http = result.getHttp();
+            if (http != null && http.getCalls() > 0) {
+                sb.append("ttfb=").append(http.getTtfb()).append(" ms sent=")
+                        .append(HttpMetrics.size(http.getBytesSent())).append(' ');
+            }
+            if (result.isSuccess()) {
+                sb.append("OK");
+            } else {
+                sb.append("FAILED code=").append(result.getCode())
+                        .append(" msg=").append(result.getMessage())
+                        .append(" folders=").append(result.getFolders());
+            }
+        }
+        System.out.println(sb);
+    }
+
+    /**
+     * A failed batch fails the build, with replace on the batches pushed before it
+     * already changed the document in torna.
+     *
+     * @param results results of one push
+     * @param replace whether the push replaced the document
+     * @return results
+     */
+    private static List<TornaPushResult> checkResults(List<TornaPushResult> results, boolean replace) {
+        int failed = 0;
+        for (TornaPushResult result : results) {
+            failed += result.isSuccess() ? 0 : 1;
+        }
+        if (failed > 0) {
+            TornaPushResult first = results.get(0);
+            String message = "Torna push incomplete, " + failed + " of " + results.size() + " "
+                    + first.getCategory() + " batches failed";
+            if (replace && first.isSuccess()) {
+                message += ", the document in torna only holds the batches that succeeded";
+            }
+            throw new TornaPushException(message);
+        }
+        return results;
+    }
+
+    /**
+     * Split the apis into batches of at most batchSize apis, a single folder
+     * larger than batchSize makes a batch of its own.
+     *
+     * @param tornaApi  document
+     * @param batchSize max apis per batch, 0 or less keeps one batch
+     * @return batches in document order
+     */
+    static List<Batch> split(TornaApi tornaApi, int batchSize) {
+        List<Unit> units = new ArrayList<>();
+        if (tornaApi.getApis() != null) {
+            collectUnits(tornaApi.getApis(), new ArrayList<>(), units);
+        }
+        List<Batch> batches = new ArrayList<>();
+        if (batchSize <= 0 || units.isEmpty()) {
+            Batch batch = new Batch(tornaApi);
+            for (Unit unit : units) {
+                batch.add(unit);
+            }
+            batches.add(batch);
+            return batches;
+        }
+        Batch batch = null;
+        Map<Apis, Apis> copies = new IdentityHashMap<>();
+        for (Unit unit : units) {
+            if (batch == null || (batch.apiCount > 0 && batch.apiCount + unit.apiCount > batchSize)) {
+                batch = new Batch(copyOf(tornaApi));
+                batches.add(batch);
+                copies.clear();
+            }
+            List<Apis> target = batch.api.getApis();
+            for (Apis parent : unit.path) {
+                Apis copy = copies.get(parent);
+                if (copy == null) {
+                    copy = copyOf(parent);
+                    copies.put(parent, copy);
+                    target.add(copy);
+                }
+                target = copy.getItems();
+            }
+            target.add(unit.item);
+            batch.add(unit);
+        }
+        return batches;
+    }
+
+    private static List<Apis> select(List<Apis> items, Predicate<Apis> filter) {
+        List<Apis> selected = new ArrayList<>();
+        if (Objects.isNull(items)) {
+            return selected;
+        }
+        for (Apis item : items) {
+            if (TornaConstants.YES.equals(item.getIsFolder())) {
+                List<Apis> children = select(item.getItems(), filter);
+                if (!children.isEmpty()) {
+                    Apis copy = copyOf(item);
+                    copy.setItems(children);
+                    selected.add(copy);
+                }
+            } else if (filter.test(item)) {
+                selected.add(item);
+            }
+        }
+        return selected;
+    }
+
+    private static void collectUnits(List<Apis> items, List<Apis> path, List<Unit> units) {
+        for (Apis item : items) {
+            if (isGroup(item)) {
+                path.add(item);
+                collectUnits(item.getItems(), path, units);
+                path.remove(path.size() - 1);
+            } else {
+                units.add(new Unit(new ArrayList<>(path), item, countApis(item)));
+            }
+        }
+    }
+
+    private static boolean isGroup(Apis item) {
+        if (!TornaConstants.YES.equals(item.getIsFolder()) || item.getItems() == null) {
+            return false;
+        }
+        for (Apis child : item.getItems()) {
+            if (TornaConstants.YES.equals(child.getIsFolder())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countApis(Apis item) {
+        if (!TornaConstants.YES.equals(item.getIsFolder())) {
+            return 1;
+        }
+        int count = 0;
+        if (item.getItems() != null) {
+            for (Apis child : item.getItems()) {
+                count += countApis(child);
+            }
+        }
+        return count;
+    }
+
+    static TornaApi copyOf(TornaApi tornaApi) {
+        TornaApi copy = new TornaApi();
+        copy.setAuthor(tornaApi.getAuthor());
+        copy.setIsReplace(tornaApi.getIsReplace());
+        copy.setDebugEnvs(tornaApi.getDebugEnvs());
+        copy.setCommonErrorCodes(tornaApi.getCommonErrorCodes());
+        copy.setApis(new ArrayList<>());
+        return copy;
+    }
+
+    static Apis copyOf(Apis folder) {
+        Apis copy = new Apis();
+        copy.setName(folder.getName());
+        copy.setDescription(folder.getDescription());
+        copy.setIsFolder(folder.getIsFolder());
+        copy.setAuthor(folder.getAuthor());
+        copy.setOrderIndex(folder.getOrderIndex());
+        copy.setParentId(folder.getParentId());
+        copy.setIsShow(folder.getIsShow());
+        copy.setDubboInfo(folder.getDubboInfo());
+        copy.setItems(new ArrayList<>());
+        return copy;
+    }
+
+    /**
+     * A folder without sub folders, or an api outside of any folder, with its group folders
+     */
+    private static class Unit {
+
+        private final List<Apis> path;
+
+        private final Apis item;
+
+        private final int apiCount;
+
+        private Unit(List<Apis> path, Apis item, int apiCount) {
+            this.path = path;
+            this.item = item;
+            this.apiCount = apiCount;
+        }
+    }
+
+    static class Batch {
+
+        private final TornaApi api;
+
+        private final List<String> folders = new ArrayList<>();
+
+        private final List<String> methodIds = new ArrayList<>();
+
+        private int apiCount;
+
+        private Batch(TornaApi api) {
+            this.api = api;
+        }
+
+        private void add(Unit unit) {
+            folders.add(unit.item.getName());
+            apiCount += unit.apiCount;
+            addMethodIds(unit.item);
+        }
+
+        private void addMethodIds(Apis item) {
+            if (Objects.nonNull(item.getMethodId())) {
+                methodIds.add(item.getMethodId());
+            }
+            if (Objects.nonNull(item.getItems())) {
+                for (Apis child : item.getItems()) {
+                    addMethodIds(child);
+                }
+            }
+        }
+
+        private TornaPushResult result(int index) {
+            return new TornaPushResult()
+                    .setIndex(index)
+                    .setCategory(TornaConstants.PUSH)
+                    .setFolders(folders)
+                    .setApiCount(apiCount);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.linlan.doc.common.util.DigestUtil;
+import net.linlan.doc.constants.TornaConstants;
+import net.linlan.doc.model.ApiConfig;
+import net.linlan.doc.model.torna.Apis;
+import net.linlan.doc.model.torna.TornaApi;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Hashes of the apis last pushed to torna, keyed by method id. The hash of an api covers
+ * the api and its folders, so renaming or moving a folder changes the apis below it.
+ * The torna module and the document level fields (author, debug environments and error
+ * codes) are hashed too, a change there means a full push.
+ *
+ * @author yu 2026/10/17.
+ */
+public class TornaSnapshot {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    private static final Gson HASH_GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private final String target;
+
+    private final String doc;
+
+    private final Map<String, Entry> apis;
+
+    private TornaSnapshot(String target, String doc, Map<String, Entry> apis) {
+        this.target = target;
+        this.doc = doc;
+        this.apis = apis;
+    }
+
+    /**
+     * Read the snapshot of the last push, an empty snapshot when there is none
+     *
+     * @param file snapshot file
+     * @return TornaSnapshot
+     */
+    public static TornaSnapshot read(String file) {
+        Path path = Paths.get(file);
+        Map<String, Entry> apis = new TreeMap<>();
+        if (!Files.isRegularFile(path)) {
+            return new TornaSnapshot(null, null, apis);
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> api : json.getAsJsonObject("apis").entrySet()) {
+                JsonObject value = api.getValue().getAsJsonObject();
+                apis.put(api.getKey(), new Entry(value.get("sha256").getAsString(), value.get("name").getAsString()));
+            }
+            return new TornaSnapshot(json.get("target").getAsString(), json.get("doc").getAsString(), apis);
+        } catch (Exception e) {
+            // an unreadable snapshot only means every api is pushed again
+            return new TornaSnapshot(null, null, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Hash the document that is about to be pushed
+     *
+     * @param tornaApi document
+     * @param config   ApiConfig
+     * @return TornaSnapshot
+     */
+    public static TornaSnapshot of(TornaApi tornaApi, ApiConfig config) {
+        String target = DigestUtil.sha256Hex(config.getOpenUrl() + '\n' + config.getAppKey() + '\n' + config.getAppToken());
+        TornaApi docFields = TornaPushPipeline.copyOf(tornaApi);
+        docFields.setIsReplace(null);
+        Map<String, Entry> apis = new TreeMap<>();
+        if (Objects.nonNull(tornaApi.getApis())) {
+            collect(tornaApi.getApis(), new StringBuilder(), apis);
+        }
+        return new TornaSnapshot(target, DigestUtil.sha256Hex(HASH_GSON.toJson(docFields)), apis);
+    }
+
+    private static void collect(List<Apis> items, StringBuilder folders, Map<String, Entry> apis) {
+        for (Apis item : items) {
+            if (TornaConstants.YES.equals(item.getIsFolder())) {
+                int length = folders.length();
+                folders.append(HASH_GSON.toJson(TornaPushPipeline.copyOf(item))).append('\n');
+                if (Objects.nonNull(item.getItems())) {
+                    collect(item.getItems(), folders, apis);
+                }
+                folders.setLength(length);
+            } else if (Objects.nonNull(item.getMethodId())) {
+                String name = StringUtils.isBlank(item.getHttpMethod()) ? item.getUrl()
+                        : item.getHttpMethod() + " " + item.getUrl();
+                Entry entry = new Entry(DigestUtil.sha256Hex(folders + HASH_GSON.toJson(item)), name);
+                // the same method listed in two groups is one entry
+                apis.merge(item.getMethodId(), entry, (a, b) -> new Entry(DigestUtil.sha256Hex(a.hash + b.hash), a.name));
+            }
+        }
+    }
+
+    /**
+     * Whether the snapshot was taken for the same torna module and document level fields
+     *
+     * @param previous snapshot of the last push
+     * @return boolean
+     */
+    public boolean isSameDoc(TornaSnapshot previous) {
+        return Objects.equals(target, previous.target) && Objects.equals(doc, previous.doc);
+    }
+
+    /**
+     * Whether an api is new or changed since the previous snapshot, apis without a
+     * method id always are
+     *
+     * @param previous snapshot of the last push
+     * @param api      api
+     * @return boolean
+     */
+    public boolean isChanged(TornaSnapshot previous, Apis api) {
+        String methodId = api.getMethodId();
+        if (Objects.isNull(methodId)) {
+            return true;
+        }
+        Entry last = previous.apis.get(methodId);
+        return Objects.isNull(last) || !last.hash.equals(apis.get(methodId).hash);
+    }
+
+    /**
+     * The apis of the previous snapshot that are gone
+     *
+     * @param previous snapshot of the last push
+     * @return method id to api name
+     */
+    public Map<String, String> removed(TornaSnapshot previous) {
+        Map<String, String> removed = new TreeMap<>();
+        for (Map.Entry<String, Entry> entry : previous.apis.entrySet()) {
+            if (!apis.containsKey(entry.getKey())) {
+                removed.put(entry.getKey(), entry.getValue().name);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * The snapshot after a push: the pushed apis of this snapshot, the apis that were
+     * not pushed this time from the previous one.
+     *
+     * @param previous snapshot of the last push, null after a full push
+     * @param removed  method ids that are gone
+     * @param pushed   method ids that torna accepted
+     * @param failed   method ids that were not pushed
+     * @return TornaSnapshot
+     */
+    public TornaSnapshot merge(TornaSnapshot previous, Collection<String> removed,
+                               Collection<String> pushed, Collection<String> failed) {
+        Map<String, Entry> next = Objects.isNull(previous) ? new TreeMap<>() : new TreeMap<>(previous.apis);
+        next.keySet().removeAll(removed);
+        next.keySet().removeAll(failed);
+        for (String methodId : pushed) {
+            next.put(methodId, apis.get(methodId));
+        }
+        return new TornaSnapshot(target, doc, next);
+    }
+
+    /**
+     * Write the snapshot, replacing the old file at once
+     *
+     * @param file snapshot file
+     */
+    public void write(String file) {
+        JsonObject json = new JsonObject();
+        json.addProperty("target", target);
+        json.addProperty("doc", doc);
+        JsonObject values = new JsonObject();
+        for (Map.Entry<String, Entry> entry : apis.entrySet()) {
+            JsonObject value = new JsonObject();
+            value.addProperty("sha256", entry.getValue().hash);
+            value.addProperty("name", entry.getValue().name);
+            values.add(entry.getKey(), value);
+        }
+        json.add("apis", values);
+        Path path = Paths.get(file).toAbsolutePath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            Files.write(temp, GSON.toJson(json).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public int size() {
+        return apis.size();
+    }
+
+    private static class Entry {
+
+        private final String hash;
+
+        private final String name;
+
+        Entry(String hash, String name) {
+            this.hash = hash;
+            this.name = name;
+        }
+    }
+}
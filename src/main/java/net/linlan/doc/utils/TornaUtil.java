@@ -4,6 +4,8 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import net.linlan.doc.common.model.EnumDictionary;
 import net.linlan.doc.common.util.CollectionUtil;
+import net.linlan.doc.common.util.HttpMetrics;
+import net.linlan.doc.common.util.OkHttp3Util;
 import net.linlan.doc.constants.DocGlobalConstants;
 import net.linlan.doc.constants.TornaConstants;
 import net.linlan.doc.model.*;
@@ -12,9 +14,16 @@ import net.linlan.doc.model.torna.*;
 import net.linlan.doc.model.*;
 import net.linlan.doc.model.torna.*;
 
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author xingzi 2021/4/28 16:15
@@ -37,6 +46,38 @@ public class TornaUtil {
         return hasDebugEnv;
     }
 
+    /**
+     * Build the http client for torna from the http settings of the config. Requests are
+     * sent with execute(), so the number of requests at a time is the number of push
+     * threads, see {@link ApiConfig#getTornaPushThreads()}.
+     *
+     * @param apiConfig ApiConfig
+     * @param metrics   listener that times every call
+     * @return OkHttpClient
+     */
+    public static OkHttpClient buildHttpClient(ApiConfig apiConfig, HttpMetrics metrics) {
+        List<Protocol> protocols;
+        String protocol = apiConfig.getHttpProtocol();
+        if (StringUtils.isBlank(protocol) || "http2".equalsIgnoreCase(protocol)) {
+            protocols = Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+        } else if ("http1".equalsIgnoreCase(protocol)) {
+            protocols = Collections.singletonList(Protocol.HTTP_1_1);
+        } else if ("h2c".equalsIgnoreCase(protocol)) {
+            protocols = Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+        } else {
+            throw new IllegalArgumentException("httpProtocol must be http2, http1 or h2c, was " + protocol);
+        }
+        return OkHttp3Util.newBuilder()
+                .connectTimeout(apiConfig.getHttpConnectTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(apiConfig.getHttpReadTimeout(), TimeUnit.MILLISECONDS)
+                .writeTimeout(apiConfig.getHttpWriteTimeout(), TimeUnit.MILLISECONDS)
+                .connectionPool(new ConnectionPool(apiConfig.getHttpMaxIdleConnections(),
+                        apiConfig.getHttpKeepAlive(), TimeUnit.MILLISECONDS))
+                .protocols(protocols)
+                .eventListenerFactory(metrics)
+                .build();
+    }
+
     public static void printDebugInfo(ApiConfig apiConfig, String responseMsg, Map<String, String> requestJson, String category) {
         if (apiConfig.isTornaDebug()) {
             String sb = "Configuration information : \n" +
@@ -80,6 +121,7 @@ public class TornaUtil {
         for (ApiMethodDoc apiMethodDoc : apiMethodDocs) {
             methodApi = new Apis();
             methodApi.setIsFolder(TornaConstants.NO);
+            methodApi.setMethodId(apiMethodDoc.getMethodId());
             methodApi.setName(apiMethodDoc.getDesc());
             methodApi.setUrl(hasDebugEnv ? apiMethodDoc.getPath() : apiMethodDoc.getUrl());
             methodApi.setHttpMethod(apiMethodDoc.getType());
@@ -130,6 +172,7 @@ public class TornaUtil {
         for (JavaMethodDoc apiMethodDoc : apiMethodDocs) {
             methodApi = new Apis();
             methodApi.setIsFolder(TornaConstants.NO);
+            methodApi.setMethodId(apiMethodDoc.getMethodId());
             methodApi.setName(apiMethodDoc.getDesc());
             methodApi.setDescription(apiMethodDoc.getDetail());
             methodApi.setIsShow(TornaConstants.YES);
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed type name such as {@code java.util.Map<java.lang.String,java.util.List<com.acme.Foo>>}.
+ * One instance is kept for each distinct name, so the name is split and checked only once.
+ * Everything here follows from the name alone, so the instances are shared by all projects
+ * of the process.
+ *
+ * @author yu 2026/10/17.
+ */
+public final class TypeNameRef {
+
+    /**
+     * names kept at most, further names are parsed on every call
+     */
+    private static final int MAX_CACHED = 100000;
+
+    private static final Map<String, TypeNameRef> CACHE = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final String simpleName;
+
+    private final boolean primitive;
+
+    private volatile String[] genericNames;
+
+    private volatile List<TypeNameRef> arguments;
+
+    private volatile String paramType;
+
+    private TypeNameRef(String name) {
+        this.name = name;
+        this.simpleName = name.contains("<") ? name.substring(0, name.indexOf("<")) : name;
+        this.primitive = JavaClassValidateUtil.checkPrimitive(name);
+    }
+
+    /**
+     * Get the type of a name
+     *
+     * @param name type name
+     * @return TypeNameRef
+     */
+    public static TypeNameRef of(String name) {
+        TypeNameRef ref = CACHE.get(name);
+        if (ref == null) {
+            ref = new TypeNameRef(name);
+            if (CACHE.size() >= MAX_CACHED) {
+                return ref;
+            }
+            TypeNameRef existing = CACHE.putIfAbsent(name, ref);
+            if (existing != null) {
+                ref = existing;
+            }
+        }
+        return ref;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return name without generics
+     */
+    public String getSimpleName() {
+        return simpleName;
+    }
+
+    /**
+     * Names of the generic arguments, the element type of collections and arrays
+     * and the key and value type of maps.
+     *
+     * @return copy of the names
+     */
+    public String[] getGenericNames() {
+        String[] names = genericNames;
+        if (names == null) {
+            names = DocClassUtil.splitGicName(name);
+            genericNames = names;
+        }
+        return names.clone();
+    }
+
+    /**
+     * @return types of the generic arguments
+     */
+    public List<TypeNameRef> getArguments() {
+        List<TypeNameRef> refs = arguments;
+        if (refs == null) {
+            String[] names = getGenericNames();
+            List<TypeNameRef> list = new ArrayList<>(names.length);
+            for (String argument : names) {
+                list.add(of(argument));
+            }
+            refs = Collections.unmodifiableList(list);
+            arguments = refs;
+        }
+        return refs;
+    }
+
+    /**
+     * @return type name used in the api params
+     */
+    public String getParamType() {
+        String type = paramType;
+        if (type == null) {
+            type = DocClassUtil.paramTypeName(name);
+            paramType = type;
+        }
+        return type;
+    }
+
+    public boolean isPrimitive() {
+        return primitive;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
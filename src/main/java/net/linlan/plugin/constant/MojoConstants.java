@@ -22,6 +22,8 @@ public interface MojoConstants {
 
     String ADOC_MOJO = "adoc";
 
+    String ALL_MOJO = "all";
+
     String HTML_MOJO = "html";
 
     String MARKDOWN_MOJO = "markdown";
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.plugin.mojo;
+
+import net.linlan.doc.builder.AllDocBuilder;
+import net.linlan.doc.common.exception.TornaPushException;
+import net.linlan.doc.model.ApiConfig;
+import net.linlan.plugin.constant.MojoConstants;
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Execute;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.util.List;
+
+/**
+ * Build several doc formats from one parse of the project.
+ *
+ * @author yu 2026/10/17.
+ */
+@Execute(phase = LifecyclePhase.COMPILE)
+@Mojo(name = MojoConstants.ALL_MOJO, requiresDependencyResolution = ResolutionScope.COMPILE)
+public class AllMojo extends BaseDocsGeneratorMojo {
+
+    /**
+     * formats to build: html, markdown, adoc, openapi, postman, torna-rest
+     */
+    @Parameter(property = "formats", defaultValue = "html,markdown,adoc,openapi,postman")
+    private List<String> formats;
+
+    @Override
+    public void executeMojo(ApiConfig apiConfig, JavaProjectBuilder javaProjectBuilder) throws MojoFailureException {
+        try {
+            AllDocBuilder.buildApiDoc(apiConfig, javaProjectBuilder, formats);
+        } catch (TornaPushException e) {
+            throw new MojoFailureException(e.getMessage(), e);
+        } catch (Exception e) {
+            getLog().error(e);
+        }
+    }
+}
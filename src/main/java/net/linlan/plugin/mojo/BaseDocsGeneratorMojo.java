@@ -18,6 +18,9 @@ package net.linlan.plugin.mojo;
 import net.linlan.doc.common.util.CollectionUtil;
 import net.linlan.doc.common.util.DateTimeUtil;
 import net.linlan.doc.common.util.RegexUtil;
+import net.linlan.doc.library.DocClassLibraryBuilder;
+import net.linlan.doc.library.SourceJarLibrary;
+import net.linlan.doc.library.SourceParseCache;
 import net.linlan.doc.model.ApiConfig;
 import net.linlan.plugin.constant.GlobalConstants;
 import net.linlan.plugin.constant.MojoConstants;
@@ -25,6 +28,7 @@ import net.linlan.plugin.util.ArtifactFilterUtil;
 import net.linlan.plugin.util.ClassLoaderUtil;
 import net.linlan.plugin.util.FileUtil;
 import net.linlan.plugin.util.MojoUtils;
+import net.linlan.plugin.util.SourcesJar;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.repository.ArtifactRepository;
@@ -50,10 +54,12 @@ import org.apache.maven.shared.dependency.graph.DependencyNode;
 import net.linlan.doc.utils.StringUtils;
 
 import java.io.File;
-import java.net.URL;
 import java.util.*;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -100,6 +106,40 @@ public abstract class BaseDocsGeneratorMojo extends AbstractMojo {
     @Parameter(defaultValue = "${mojoExecution}")
     private MojoExecution mojoEx;
 
+    /**
+     * Keep parsed sources in an on-disk cache and only re-parse changed files
+     */
+    @Parameter(property = "parseCache", defaultValue = "false")
+    private boolean parseCache;
+
+    @Parameter(property = "parseCacheDir", defaultValue = "${project.build.directory}/doc-generate/parse-cache")
+    private File parseCacheDir;
+
+    /**
+     * Only index dependency sources jars and parse a jar entry when its class is used
+     */
+    @Parameter(property = "lazySources", defaultValue = "false")
+    private boolean lazySources;
+
+    @Parameter(property = "sourceIndexDir", defaultValue = "${project.build.directory}/doc-generate/source-index")
+    private File sourceIndexDir;
+
+    /**
+     * Worker threads resolving and reading dependency sources, defaults to the number of processors
+     */
+    @Parameter(property = "sourcesParallelism", defaultValue = "0")
+    private int sourcesParallelism;
+
+    /**
+     * Push every api to torna and rewrite the torna snapshot
+     */
+    @Parameter(property = "tornaFullSync", defaultValue = "false")
+    private boolean tornaFullSync;
+
+    private SourceParseCache sourceParseCache;
+
+    private DocClassLibraryBuilder classLibraryBuilder;
+
     private DependencyNode rootNode;
 
     protected JavaProjectBuilder javaProjectBuilder;
@@ -140,6 +180,13 @@ public abstract class BaseDocsGeneratorMojo extends AbstractMojo {
         if (!FileUtil.isAbsPath(rpcConsumerConfig) && StringUtils.isNotEmpty(rpcConsumerConfig)) {
             apiConfig.setRpcConsumerConfig(project.getBasedir().getPath() + "/" + rpcConsumerConfig);
         }
+        String tornaSnapshot = apiConfig.getTornaSnapshot();
+        if (!FileUtil.isAbsPath(tornaSnapshot) && StringUtils.isNotEmpty(tornaSnapshot)) {
+            apiConfig.setTornaSnapshot(project.getBasedir().getPath() + "/" + tornaSnapshot);
+        }
+        if (tornaFullSync) {
+            apiConfig.setTornaFullSync(true);
+        }
         String goal = mojoEx.getGoal();
         String outPath = apiConfig.getOutPath();
         if (StringUtils.isEmpty(outPath)) {
@@ -156,6 +203,16 @@ public abstract class BaseDocsGeneratorMojo extends AbstractMojo {
             getLog().info("API documentation is output to => " + apiConfig.getOutPath().replace("\\", "/"));
         }
         this.executeMojo(apiConfig, javaProjectBuilder);
+        if (lazySources) {
+            SourceJarLibrary sourceJarLibrary = classLibraryBuilder.getSourceJarLibrary();
+            getLog().info("Doc generate parsed " + sourceJarLibrary.getParsedCount() + " of "
+                    + sourceJarLibrary.getIndexedCount() + " indexed dependency sources.");
+        }
+        if (Objects.nonNull(sourceParseCache)) {
+            int pruned = sourceParseCache.prune();
+            getLog().info("Doc generate parse cache: " + sourceParseCache.getHits() + " hits, "
+                    + sourceParseCache.getMisses() + " misses, " + pruned + " stale entries removed.");
+        }
     }
 
 
@@ -166,7 +223,12 @@ public abstract class BaseDocsGeneratorMojo extends AbstractMojo {
      * @throws MojoExecutionException
      */
     private JavaProjectBuilder buildJavaProjectBuilder() throws MojoExecutionException {
-        JavaProjectBuilder javaDocBuilder = new JavaProjectBuilder();
+        if (parseCache) {
+            sourceParseCache = new SourceParseCache(parseCacheDir);
+        }
+        classLibraryBuilder = new DocClassLibraryBuilder(sourceParseCache);
+        classLibraryBuilder.appendDefaultClassLoaders();
+        JavaProjectBuilder javaDocBuilder = new JavaProjectBuilder(classLibraryBuilder);
         javaDocBuilder.setEncoding("UTF-8");
         javaDocBuilder.setErrorHandler(e -> getLog().warn(e.getMessage()));
         //addSourceTree
@@ -191,6 +253,7 @@ public abstract class BaseDocsGeneratorMojo extends AbstractMojo {
             this.rootNode = this.dependencyGraphBuilder.buildDependencyGraph(buildingRequest, artifactFilter);
             List<DependencyNode> dependencyNodes = this.rootNode.getChildren();
             List<Artifact> artifactList = this.getArtifacts(dependencyNodes);
+            List<Artifact> sourcesArtifacts = new ArrayList<>();
             artifactList.forEach(artifact -> {
                 if (ArtifactFilterUtil.ignoreSpringBootArtifactById(artifact)) {
                     return;
@@ -208,29 +271,63 @@ public abstract class BaseDocsGeneratorMojo extends AbstractMojo {
                     Artifact sourcesArtifact = repositorySystem.createArtifactWithClassifier(artifact.getGroupId(),
                             artifact.getArtifactId(), artifact.getVersion(), artifact.getType(), "sources");
                     this.projectArtifacts.add(artifactName);
-                    this.loadSourcesDependency(javaDocBuilder, sourcesArtifact);
+                    sourcesArtifacts.add(sourcesArtifact);
                     return;
                 }
                 if (CollectionUtil.isEmpty(includes)) {
                     Artifact sourcesArtifact = repositorySystem.createArtifactWithClassifier(artifact.getGroupId(),
                             artifact.getArtifactId(), artifact.getVersion(), artifact.getType(), "sources");
                     this.projectArtifacts.add(artifactName);
-                    this.loadSourcesDependency(javaDocBuilder, sourcesArtifact);
+                    sourcesArtifacts.add(sourcesArtifact);
                 }
                 getLog().debug("doc-generate loaded artifact:" + artifactName);
             });
+            this.loadSourcesDependency(javaDocBuilder, sourcesArtifacts);
         } catch (DependencyGraphBuilderException e) {
             throw new MojoExecutionException("Can't build project dependency graph", e);
         }
     }
 
+    /**
+     * Resolve and read the sources artifacts on a bounded worker pool, the sources are handed
+     * to QDox on the current thread in the order of the artifacts. At most twice the pool size
+     * of artifacts are read ahead, which bounds the sources held in memory.
+     *
+     * @param javaDocBuilder   JavaProjectBuilder
+     * @param sourcesArtifacts sources artifacts
+     */
+    private void loadSourcesDependency(JavaProjectBuilder javaDocBuilder, List<Artifact> sourcesArtifacts) {
+        int threads = sourcesParallelism > 0 ? sourcesParallelism : Runtime.getRuntime().availableProcessors();
+        threads = Math.max(1, Math.min(threads, sourcesArtifacts.size()));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "doc-generate-sources-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<List<SourcesJar>>> readAhead = new ArrayDeque<>();
+        try {
+            for (Artifact sourcesArtifact : sourcesArtifacts) {
+                if (readAhead.size() >= threads * 2) {
+                    this.addSourcesJars(javaDocBuilder, readAhead.poll());
+                }
+                readAhead.add(executor.submit(() -> this.readSourcesDependency(sourcesArtifact)));
+            }
+            while (!readAhead.isEmpty()) {
+                this.addSourcesJars(javaDocBuilder, readAhead.poll());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * reference https://github.com/sfauvel/livingdocumentation
      *
-     * @param javaDocBuilder  JavaProjectBuilder
      * @param sourcesArtifact Artifact
+     * @return sources jars of the artifact
      */
-    private void loadSourcesDependency(JavaProjectBuilder javaDocBuilder, Artifact sourcesArtifact) {
+    private List<SourcesJar> readSourcesDependency(Artifact sourcesArtifact) {
         // create request
         ArtifactResolutionRequest request = new ArtifactResolutionRequest();
         request.setArtifact(sourcesArtifact);
@@ -239,24 +336,54 @@ public abstract class BaseDocsGeneratorMojo extends AbstractMojo {
         // resolve deps
         ArtifactResolutionResult result = repositorySystem.resolve(request);
 
-        // load source file into javadoc builder
+        List<SourcesJar> sourcesJars = new ArrayList<>();
         result.getArtifacts().forEach(artifact -> {
-            try (JarFile jarFile = new JarFile(artifact.getFile())) {
-                if (getLog().isDebugEnabled()) {
-                    getLog().debug("doc-generate loaded jar source:" + artifact.getFile().toURI().toURL().toString());
-                }
-                for (Enumeration<?> entries = jarFile.entries(); entries.hasMoreElements(); ) {
-                    JarEntry entry = (JarEntry) entries.nextElement();
-                    String name = entry.getName();
-                    if (name.endsWith(".java") && !name.endsWith("/package-info.java")) {
-                        javaDocBuilder.addSource(
-                                new URL("jar:" + artifact.getFile().toURI().toURL().toString() + "!/" + name));
-                    }
+            try {
+                if (lazySources) {
+                    sourcesJars.add(SourcesJar.index(artifact.getFile(), artifact.getId(), sourceIndexDir));
+                } else {
+                    sourcesJars.add(SourcesJar.read(artifact.getFile()));
                 }
             } catch (Exception e) {
                 getLog().warn("Unable to load jar source " + artifact + " : " + e.getMessage());
             }
         });
+        return sourcesJars;
+    }
+
+    /**
+     * load source file into javadoc builder
+     *
+     * @param javaDocBuilder JavaProjectBuilder
+     * @param future         sources jars being read
+     */
+    private void addSourcesJars(JavaProjectBuilder javaDocBuilder, Future<List<SourcesJar>> future) {
+        List<SourcesJar> sourcesJars;
+        try {
+            sourcesJars = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading jar sources.", e);
+        } catch (ExecutionException e) {
+            getLog().warn("Unable to load jar source: " + e.getCause().getMessage());
+            return;
+        }
+        for (SourcesJar sourcesJar : sourcesJars) {
+            try {
+                if (getLog().isDebugEnabled()) {
+                    getLog().debug("doc-generate loaded jar source:" + sourcesJar.getFile().toURI().toURL().toString());
+                }
+                if (Objects.nonNull(sourcesJar.getIndex())) {
+                    classLibraryBuilder.appendSourceJar(sourcesJar.getIndex());
+                    continue;
+                }
+                for (String name : sourcesJar.getEntries().keySet()) {
+                    javaDocBuilder.addSource(sourcesJar.toUrl(name));
+                }
+            } catch (Exception e) {
+                getLog().warn("Unable to load jar source " + sourcesJar.getFile() + " : " + e.getMessage());
+            }
+        }
     }
 
     /**
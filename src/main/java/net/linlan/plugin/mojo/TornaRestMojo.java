@@ -16,9 +16,11 @@
 package net.linlan.plugin.mojo;
 
 import net.linlan.doc.builder.TornaBuilder;
+import net.linlan.doc.common.exception.TornaPushException;
 import net.linlan.doc.model.ApiConfig;
 import net.linlan.plugin.constant.MojoConstants;
 import com.thoughtworks.qdox.JavaProjectBuilder;
+import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -34,9 +36,11 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 public class TornaRestMojo extends BaseDocsGeneratorMojo {
 
     @Override
-    public void executeMojo(ApiConfig apiConfig, JavaProjectBuilder javaProjectBuilder) {
+    public void executeMojo(ApiConfig apiConfig, JavaProjectBuilder javaProjectBuilder) throws MojoFailureException {
         try {
             TornaBuilder.buildApiDoc(apiConfig, javaProjectBuilder);
+        } catch (TornaPushException e) {
+            throw new MojoFailureException(e.getMessage(), e);
         } catch (Exception e) {
             getLog().error(e);
         }
@@ -0,0 +1,146 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.plugin.util;
+
+import net.linlan.doc.common.util.FileUtil;
+import net.linlan.doc.library.SourceJarIndex;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Sources of a dependency sources jar, read off the Maven thread and handed
+ * to QDox later. Entries are kept in jar order.
+ *
+ * @author yu 2026/10/17.
+ */
+public class SourcesJar {
+
+    private final File file;
+
+    private final String jarUrl;
+
+    /**
+     * key is entry name, value is entry content
+     */
+    private final Map<String, byte[]> entries;
+
+    /**
+     * index of the jar when the sources are loaded lazily
+     */
+    private final SourceJarIndex index;
+
+    private SourcesJar(File file, Map<String, byte[]> entries, SourceJarIndex index) throws IOException {
+        this.file = file;
+        this.jarUrl = "jar:" + file.toURI().toURL() + "!/";
+        this.entries = entries;
+        this.index = index;
+    }
+
+    /**
+     * Read every java source of the jar
+     *
+     * @param file sources jar
+     * @return SourcesJar
+     * @throws IOException IOException
+     */
+    public static SourcesJar read(File file) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (JarFile jarFile = new JarFile(file)) {
+            for (Enumeration<JarEntry> it = jarFile.entries(); it.hasMoreElements(); ) {
+                JarEntry entry = it.nextElement();
+                String name = entry.getName();
+                if (name.endsWith(".java") && !name.endsWith("/package-info.java")) {
+                    try (InputStream in = jarFile.getInputStream(entry)) {
+                        entries.put(name, FileUtil.copyToByteArray(in));
+                    }
+                }
+            }
+        }
+        return new SourcesJar(file, entries, null);
+    }
+
+    /**
+     * Only index the jar, see {@link SourceJarIndex}
+     *
+     * @param file        sources jar
+     * @param coordinates artifact coordinates
+     * @param cacheDir    index cache dir
+     * @return SourcesJar
+     * @throws IOException IOException
+     */
+    public static SourcesJar index(File file, String coordinates, File cacheDir) throws IOException {
+        return new SourcesJar(file, Collections.emptyMap(), SourceJarIndex.load(file, coordinates, cacheDir));
+    }
+
+    /**
+     * Url of the entry. The first read returns the content already in memory and lets go
+     * of it, later reads open the jar again.
+     *
+     * @param name entry name
+     * @return URL
+     * @throws IOException IOException
+     */
+    public URL toUrl(String name) throws IOException {
+        URL entryUrl = new URL(jarUrl + name);
+        AtomicReference<byte[]> content = new AtomicReference<>(entries.get(name));
+        return new URL(null, entryUrl.toString(), new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) throws IOException {
+                byte[] bytes = content.getAndSet(null);
+                if (Objects.isNull(bytes)) {
+                    URLConnection connection = entryUrl.openConnection();
+                    // close the jar with the stream instead of caching it
+                    connection.setUseCaches(false);
+                    return connection;
+                }
+                return new URLConnection(url) {
+                    @Override
+                    public void connect() {
+                        connected = true;
+                    }
+
+                    @Override
+                    public InputStream getInputStream() {
+                        return new ByteArrayInputStream(bytes);
+                    }
+                };
+            }
+        });
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public Map<String, byte[]> getEntries() {
+        return entries;
+    }
+
+    public SourceJarIndex getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.torna;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import net.linlan.doc.builder.TornaBuilder;
+import net.linlan.doc.builder.rpc.RpcTornaBuilder;
+import net.linlan.doc.common.exception.TornaPushException;
+import net.linlan.doc.constants.TornaConstants;
+import net.linlan.doc.model.ApiConfig;
+import net.linlan.doc.model.SourceCodePath;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pushes synthetic projects to a {@link TornaStandInServer} with {@link TornaBuilder} or
+ * {@link RpcTornaBuilder} and prints, for every project size, the time of the whole build,
+ * the time from the first to the last request the stand-in answered, the pushed apis per
+ * second of that window, the request bytes and the peak heap.
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;plugin classpath&gt; net.linlan.doc.torna.TornaPushBenchmark [endpoints ...]
+ *     [--rpc] [--latency=ms] [--jitter=ms] [--failure-rate=0.01] [--batch-size=200]
+ *     [--threads=4] [--gzip] [--work-dir=dir] [--no-warmup] [--verbose]
+ * </pre>
+ * Without endpoints it runs 1000, 5000 and 20000. The sources are written to the work
+ * directory, 50 endpoints per controller or dubbo interface.
+ *
+ * @author yu 2026/10/17.
+ */
+public class TornaPushBenchmark {
+
+    private static final int ENDPOINTS_PER_CLASS = 50;
+
+    private static final String SECRET = "benchmark-secret";
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        boolean rpc = false;
+        boolean gzip = false;
+        boolean warmup = true;
+        boolean verbose = false;
+        long latency = 0L;
+        long jitter = 0L;
+        double failureRate = 0D;
+        int batchSize = new ApiConfig().getTornaBatchSize();
+        int threads = new ApiConfig().getTornaPushThreads();
+        Path workDir = Paths.get(System.getProperty("java.io.tmpdir"), "doc-generate-torna-benchmark");
+        for (String arg : args) {
+            if ("--rpc".equals(arg)) {
+                rpc = true;
+            } else if ("--gzip".equals(arg)) {
+                gzip = true;
+            } else if ("--no-warmup".equals(arg)) {
+                warmup = false;
+            } else if ("--verbose".equals(arg)) {
+                verbose = true;
+            } else if (arg.startsWith("--latency=")) {
+                latency = Long.parseLong(value(arg));
+            } else if (arg.startsWith("--jitter=")) {
+                jitter = Long.parseLong(value(arg));
+            } else if (arg.startsWith("--failure-rate=")) {
+                failureRate = Double.parseDouble(value(arg));
+            } else if (arg.startsWith("--batch-size=")) {
+                batchSize = Integer.parseInt(value(arg));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(value(arg));
+            } else if (arg.startsWith("--work-dir=")) {
+                workDir = Paths.get(value(arg));
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            } else {
+                sizes.add(Integer.parseInt(arg));
+            }
+        }
+        if (sizes.isEmpty()) {
+            sizes.add(1000);
+            sizes.add(5000);
+            sizes.add(20000);
+        }
+        try (TornaStandInServer server = TornaStandInServer.start(0, SECRET)) {
+            server.setLatency(latency, jitter);
+            server.setFailureRate(failureRate);
+            System.out.println("Torna push benchmark: " + (rpc ? "RpcTornaBuilder" : "TornaBuilder")
+                    + ", batch size " + batchSize + ", " + threads + " threads, gzip " + gzip
+                    + ", latency " + latency + "+" + jitter + " ms, failure rate " + failureRate);
+            if (warmup) {
+                Run run = new Run(rpc, sizes.get(0), workDir, server, batchSize, threads, gzip);
+                run.execute(verbose);
+            }
+            for (int size : sizes) {
+                Run run = new Run(rpc, size, workDir, server, batchSize, threads, gzip);
+                run.execute(verbose);
+                System.out.println(run);
+            }
+        }
+    }
+
+    private static String value(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    private static class Run {
+
+        private final boolean rpc;
+
+        private final int endpoints;
+
+        private final Path sourceDir;
+
+        private final TornaStandInServer server;
+
+        private final ApiConfig config = new ApiConfig();
+
+        private long total;
+
+        private long window;
+
+        private int requests;
+
+        private int failedRequests;
+
+        private int pushedApis;
+
+        private long wireBytes;
+
+        private long peakHeap;
+
+        private boolean incomplete;
+
+        private Run(boolean rpc, int endpoints, Path workDir, TornaStandInServer server,
+                    int batchSize, int threads, boolean gzip) {
+            this.rpc = rpc;
+            this.endpoints = endpoints;
+            this.sourceDir = workDir.resolve((rpc ? "rpc-" : "rest-") + endpoints);
+            this.server = server;
+            config.setServerUrl("http://localhost");
+            config.setOpenUrl(server.getOpenUrl());
+            config.setAppKey("benchmark");
+            config.setAppToken("benchmark-token");
+            config.setSecret(SECRET);
+            config.setTornaDebug(false);
+            config.setTornaBatchSize(batchSize);
+            config.setTornaPushThreads(threads);
+            config.setTornaGzip(gzip);
+            config.setTornaRetryBackoff(100L);
+            config.setOutPath(workDir.resolve("out").toString());
+            config.setSourceCodePaths(SourceCodePath.builder().setPath(sourceDir.toString()));
+        }
+
+        private void execute(boolean verbose) throws IOException {
+            writeSources();
+            JavaProjectBuilder builder = new JavaProjectBuilder();
+            builder.setEncoding("UTF-8");
+            builder.addSourceTree(sourceDir.toFile());
+            server.reset();
+            System.gc();
+            List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+            for (MemoryPoolMXBean pool : pools) {
+                pool.resetPeakUsage();
+            }
+            PrintStream out = System.out;
+            if (!verbose) {
+                System.setOut(new PrintStream(new OutputStream() {
+                    @Override
+                    public void write(int b) {
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                    }
+                }));
+            }
+            long start = System.nanoTime();
+            try {
+                if (rpc) {
+                    RpcTornaBuilder.buildApiDoc(config, builder);
+                } else {
+                    TornaBuilder.buildApiDoc(config, builder);
+                }
+            } catch (TornaPushException e) {
+                // failed requests are counted from what the stand-in received
+                incomplete = true;
+            } finally {
+                System.setOut(out);
+            }
+            total = (System.nanoTime() - start) / 1000000L;
+            for (MemoryPoolMXBean pool : pools) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peakHeap += pool.getPeakUsage().getUsed();
+                }
+            }
+            long first = Long.MAX_VALUE;
+            long last = 0L;
+            for (TornaStandInServer.Received received : server.getRequests()) {
+                requests++;
+                wireBytes += received.getWireBytes();
+                first = Math.min(first, received.getReceivedAt());
+                last = Math.max(last, received.getCompletedAt());
+                if (received.getStatus() != 200) {
+                    failedRequests++;
+                } else if (TornaConstants.PUSH.equals(received.getName())) {
+                    pushedApis += received.getApiCount();
+                }
+            }
+            window = requests == 0 ? 0L : (last - first) / 1000000L;
+        }
+
+        private void writeSources() throws IOException {
+            if (Files.isDirectory(sourceDir)) {
+                return;
+            }
+            Path dto = sourceDir.resolve("bench/dto");
+            Files.createDirectories(dto);
+            write(dto.resolve("Result.java"), "package bench.dto;\n\n/**\n * result\n */\npublic class Result<T> {\n"
+                    + field("code", "int", "code") + field("message", "String", "message") + field("data", "T", "data") + "}\n");
+            write(dto.resolve("PageVo.java"), "package bench.dto;\n\nimport java.util.List;\n\n/**\n * page\n */\n"
+                    + "public class PageVo<T> {\n" + field("total", "long", "total") + field("rows", "List<T>", "rows") + "}\n");
+            write(dto.resolve("ItemDTO.java"), "package bench.dto;\n\n/**\n * item\n */\npublic class ItemDTO {\n"
+                    + field("sku", "String", "sku") + field("qty", "Integer", "quantity") + field("price", "Double", "price") + "}\n");
+            write(dto.resolve("OrderDTO.java"), "package bench.dto;\n\nimport java.util.List;\n\n/**\n * order\n */\n"
+                    + "public class OrderDTO {\n" + field("id", "Long", "order id") + field("customer", "String", "customer name")
+                    + field("remark", "String", "remark") + field("items", "List<ItemDTO>", "order items") + "}\n");
+            Path classes = sourceDir.resolve(rpc ? "bench/rpc" : "bench/web");
+            Files.createDirectories(classes);
+            for (int i = 0; i * ENDPOINTS_PER_CLASS < endpoints; i++) {
+                int count = Math.min(ENDPOINTS_PER_CLASS, endpoints - i * ENDPOINTS_PER_CLASS);
+                StringBuilder sb = new StringBuilder();
+                if (rpc) {
+                    sb.append("package bench.rpc;\n\nimport bench.dto.*;\n\n/**\n * service ").append(i)
+                            .append("\n * @dubbo\n */\npublic interface Bench").append(i).append("Service {\n");
+                    for (int j = 0; j < count; j++) {
+                        sb.append("\n    /**\n     * operation ").append(j).append("\n     * @param order order\n     */\n")
+                                .append(j % 2 == 0 ? "    Result<OrderDTO> get" : "    Result<PageVo<ItemDTO>> items")
+                                .append(j).append("(OrderDTO order);\n");
+                    }
+                } else {
+                    sb.append("package bench.web;\n\nimport bench.dto.*;\nimport org.springframework.web.bind.annotation.*;\n\n")
+                            .append("/**\n * controller ").append(i).append("\n */\n@RestController\n@RequestMapping(\"/bench")
+                            .append(i).append("\")\npublic class Bench").append(i).append("Controller {\n");
+                    for (int j = 0; j < count; j++) {
+                        if (j % 2 == 0) {
+                            sb.append("\n    /**\n     * get ").append(j).append("\n     * @param id id\n     */\n")
+                                    .append("    @GetMapping(\"/get").append(j).append("/{id}\")\n")
+                                    .append("    public Result<OrderDTO> get").append(j)
+                                    .append("(@PathVariable Long id) {\n        return null;\n    }\n");
+                        } else {
+                            sb.append("\n    /**\n     * save ").append(j).append("\n     * @param order order\n     */\n")
+                                    .append("    @PostMapping(\"/save").append(j).append("\")\n")
+                                    .append("    public Result<PageVo<ItemDTO>> save").append(j)
+                                    .append("(@RequestBody OrderDTO order) {\n        return null;\n    }\n");
+                        }
+                    }
+                }
+                sb.append("}\n");
+                write(classes.resolve("Bench" + i + (rpc ? "Service.java" : "Controller.java")), sb.toString());
+            }
+        }
+
+        private static String field(String name, String type, String comment) {
+            return "    /**\n     * " + comment + "\n     */\n    private " + type + " " + name + ";\n";
+        }
+
+        private static void write(Path file, String content) throws IOException {
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String toString() {
+            long throughput = window == 0 ? 0 : pushedApis * 1000L / window;
+            return String.format("endpoints=%-6d total=%6d ms  push=%6d ms  requests=%4d (failed %d)  apis=%6d  "
+                            + "%6d apis/s  sent=%7d KB  peak heap=%5d MB%s",
+                    endpoints, total, window, requests, failedRequests, pushedApis, throughput,
+                    wireBytes / 1024, peakHeap / (1024 * 1024), incomplete ? "  INCOMPLETE" : "");
+        }
+    }
+}
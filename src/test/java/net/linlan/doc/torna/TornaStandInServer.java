@@ -0,0 +1,463 @@
+/**
+ * Copyright 2018-2023 the original author or Linlan authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.linlan.doc.torna;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.linlan.doc.constants.TornaConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * In-process stand-in for the torna open api on the jdk http server, for benchmarking and
+ * trying out pushes without a torna instance. It answers doc.push, doc.category.create and
+ * enum.batch.push like torna does, checks the sign when a secret is given, keeps the pushed
+ * docs of one module and records every request. Latency and failures can be simulated.
+ *
+ * @author yu 2026/10/17.
+ */
+public class TornaStandInServer implements AutoCloseable {
+
+    private static final Gson GSON = new Gson();
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final String secret;
+
+    private final List<Received> requests = Collections.synchronizedList(new ArrayList<>());
+
+    private final Map<String, String> docs = new LinkedHashMap<>();
+
+    private final AtomicInteger categoryIds = new AtomicInteger();
+
+    private final AtomicInteger failNext = new AtomicInteger();
+
+    private final Random random = new Random(1L);
+
+    private volatile long latency;
+
+    private volatile long latencyJitter;
+
+    private volatile double failureRate;
+
+    private volatile int failStatus = 503;
+
+    private volatile boolean recordPayloads;
+
+    private TornaStandInServer(int port, String secret, int threads) throws IOException {
+        this.secret = secret;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "torna-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Start a server on the loopback address
+     *
+     * @param port   port, 0 picks a free one
+     * @param secret secret to check the sign with, null accepts any sign
+     * @return started server
+     * @throws IOException when the port can't be bound
+     */
+    public static TornaStandInServer start(int port, String secret) throws IOException {
+        TornaStandInServer standIn = new TornaStandInServer(port, secret, 16);
+        standIn.server.start();
+        return standIn;
+    }
+
+    /**
+     * @return url to use as the torna openUrl
+     */
+    public String getOpenUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+    }
+
+    /**
+     * Delay every answer
+     *
+     * @param millis fixed delay in milliseconds
+     * @param jitter random extra delay of up to jitter milliseconds
+     */
+    public void setLatency(long millis, long jitter) {
+        this.latency = millis;
+        this.latencyJitter = jitter;
+    }
+
+    /**
+     * Answer a share of the requests with {@link #failNext(int, int)}'s status
+     *
+     * @param failureRate 0 to 1
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * Answer the next requests with an http error
+     *
+     * @param count  number of requests
+     * @param status http status, e.g. 503
+     */
+    public void failNext(int count, int status) {
+        this.failStatus = status;
+        this.failNext.set(count);
+    }
+
+    /**
+     * Keep the decoded data of every request, off by default to keep large benchmarks small
+     *
+     * @param recordPayloads record payloads
+     */
+    public void setRecordPayloads(boolean recordPayloads) {
+        this.recordPayloads = recordPayloads;
+    }
+
+    /**
+     * @return copy of the requests received so far
+     */
+    public List<Received> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    /**
+     * @param name open api name, e.g. doc.push
+     * @return number of requests to the open api
+     */
+    public int count(String name) {
+        int count = 0;
+        for (Received received : getRequests()) {
+            count += name.equals(received.name) ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @return the docs of the module, "method url" to folder path
+     */
+    public Map<String, String> getDocs() {
+        synchronized (docs) {
+            return new LinkedHashMap<>(docs);
+        }
+    }
+
+    /**
+     * Forget the requests and docs, keep latency and failure settings
+     */
+    public void reset() {
+        requests.clear();
+        synchronized (docs) {
+            docs.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, null);
+                return;
+            }
+            CountingInputStream wire = new CountingInputStream(exchange.getRequestBody());
+            InputStream in = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                    ? new GZIPInputStream(wire) : wire;
+            String body = read(in);
+            delay();
+            Received received = new Received();
+            received.receivedAt = start;
+            received.wireBytes = wire.count;
+            if (takeFailure() || nextDouble() < failureRate) {
+                received.status = failStatus;
+                record(received, exchange, failStatus, null);
+                return;
+            }
+            JsonObject request = JsonParser.parseString(body).getAsJsonObject();
+            Map<String, String> params = new HashMap<>();
+            for (Map.Entry<String, JsonElement> entry : request.entrySet()) {
+                params.put(entry.getKey(), entry.getValue().getAsString());
+            }
+            received.name = params.get("name");
+            received.status = 200;
+            String sign = params.remove("sign");
+            if (secret != null && !TornaConstants.buildSign(params, secret).equals(sign)) {
+                record(received, exchange, 200, answer("-1", "sign error", null));
+                return;
+            }
+            String data = params.get("data") == null ? "" : URLDecoder.decode(params.get("data"), "utf-8");
+            received.dataLength = data.length();
+            received.payload = recordPayloads ? data : null;
+            JsonElement result = null;
+            if (TornaConstants.PUSH.equals(received.name)) {
+                JsonObject tornaApi = JsonParser.parseString(data).getAsJsonObject();
+                received.replace = tornaApi.has("isReplace") && tornaApi.get("isReplace").getAsInt() == 1;
+                synchronized (docs) {
+                    if (received.replace) {
+                        docs.clear();
+                    }
+                    received.apiCount = collect(tornaApi.getAsJsonArray("apis"), "");
+                }
+            } else if (TornaConstants.ENUM_PUSH.equals(received.name)) {
+                JsonArray enums = JsonParser.parseString(data).getAsJsonObject().getAsJsonArray("enums");
+                received.apiCount = enums == null ? 0 : enums.size();
+            } else if (TornaConstants.CATEGORY_CREATE.equals(received.name)) {
+                JsonObject id = new JsonObject();
+                id.addProperty(TornaConstants.ID, String.valueOf(categoryIds.incrementAndGet()));
+                result = id;
+            } else {
+                record(received, exchange, 200, answer("-1", "unknown api " + received.name, null));
+                return;
+            }
+            record(received, exchange, 200, answer(TornaConstants.SUCCESS_CODE, "success", result));
+        } catch (RuntimeException e) {
+            send(exchange, 500, null);
+        }
+    }
+
+    private int collect(JsonArray apis, String folder) {
+        int count = 0;
+        if (apis == null) {
+            return count;
+        }
+        for (JsonElement element : apis) {
+            JsonObject api = element.getAsJsonObject();
+            String name = api.has("name") && !api.get("name").isJsonNull() ? api.get("name").getAsString() : "";
+            if (api.has("isFolder") && TornaConstants.YES.equals(api.get("isFolder").getAsString())) {
+                count += collect(api.getAsJsonArray("items"), folder + "/" + name);
+            } else {
+                String method = api.has("httpMethod") ? api.get("httpMethod").getAsString() + " " : "";
+                String url = api.has("url") ? api.get("url").getAsString() : name;
+                docs.put(method + url, folder);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void record(Received received, HttpExchange exchange, int status, String answer) throws IOException {
+        // recorded before answering, so a client that got its answer also finds its request
+        received.completedAt = System.nanoTime();
+        requests.add(received);
+        send(exchange, status, answer);
+    }
+
+    private static String answer(String code, String msg, JsonElement data) {
+        JsonObject answer = new JsonObject();
+        answer.addProperty(TornaConstants.CODE, code);
+        answer.addProperty(TornaConstants.MESSAGE, msg);
+        if (data != null) {
+            answer.add(TornaConstants.DATA, data);
+        }
+        return GSON.toJson(answer);
+    }
+
+    private static void send(HttpExchange exchange, int status, String answer) throws IOException {
+        if (answer == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            byte[] content = answer.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(status, content.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+        }
+        exchange.close();
+    }
+
+    private void delay() {
+        long millis = latency + (latencyJitter > 0 ? (long) (nextDouble() * latencyJitter) : 0L);
+        if (millis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean takeFailure() {
+        int count;
+        do {
+            count = failNext.get();
+            if (count <= 0) {
+                return false;
+            }
+        } while (!failNext.compareAndSet(count, count - 1));
+        return true;
+    }
+
+    private double nextDouble() {
+        synchronized (random) {
+            return random.nextDouble();
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One request as the stand-in received it
+     */
+    public static class Received {
+
+        private String name;
+
+        private int status;
+
+        private boolean replace;
+
+        private int apiCount;
+
+        private long wireBytes;
+
+        private int dataLength;
+
+        private String payload;
+
+        private long receivedAt;
+
+        private long completedAt;
+
+        /**
+         * @return open api name, null when the request was failed on purpose
+         */
+        public String getName() {
+            return name;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return whether a doc.push replaced the module
+         */
+        public boolean isReplace() {
+            return replace;
+        }
+
+        /**
+         * @return apis of a doc.push or enums of an enum push
+         */
+        public int getApiCount() {
+            return apiCount;
+        }
+
+        /**
+         * @return request body bytes as sent, compressed or not
+         */
+        public long getWireBytes() {
+            return wireBytes;
+        }
+
+        /**
+         * @return length of the url decoded data
+         */
+        public int getDataLength() {
+            return dataLength;
+        }
+
+        /**
+         * @return url decoded data, only kept with {@link #setRecordPayloads(boolean)}
+         */
+        public String getPayload() {
+            return payload;
+        }
+
+        /**
+         * @return System.nanoTime() when the request came in
+         */
+        public long getReceivedAt() {
+            return receivedAt;
+        }
+
+        /**
+         * @return System.nanoTime() right before the answer was sent
+         */
+        public long getCompletedAt() {
+            return completedAt;
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            count += b == -1 ? 0 : 1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            count += Math.max(read, 0);
+            return read;
+        }
+    }
+}